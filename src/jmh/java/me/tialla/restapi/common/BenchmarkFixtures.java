@@ -0,0 +1,82 @@
+package me.tialla.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.events.Event;
+import me.tialla.restapi.events.EventDto;
+import me.tialla.restapi.events.EventStatus;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+
+// 벤치마크에서 공통으로 쓰는 입력값과 애플리케이션과 같은 설정의 HAL ObjectMapper
+public class BenchmarkFixtures {
+
+    public static EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,8,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("감남역 D2 스타일 팩토리")
+                .build();
+    }
+
+    public static Event event(int id) {
+        return Event.builder()
+                .id(id)
+                .name("event" + id)
+                .description("test event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,8,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("감남역 D2 스타일 팩토리")
+                .free(false)
+                .offline(true)
+                .eventStatus(EventStatus.DRAFT)
+                .manager(Account.builder().id(1).build())
+                .build();
+    }
+
+    public static ObjectMapper halObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        objectMapper.registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+        return objectMapper;
+    }
+
+    // linkTo()가 현재 요청에서 base URI를 읽으므로 요청을 바인딩해 둔다.
+    public static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    public static void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
@@ -0,0 +1,85 @@
+package me.tialla.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import me.tialla.restapi.events.Event;
+import me.tialla.restapi.events.EventDto;
+import me.tialla.restapi.events.EventResource;
+import me.tialla.restapi.events.EventValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// 응답 직렬화 비용: 단건 이벤트, 20개짜리 페이지, 에러 응답
+// jackson=afterburner는 애플리케이션 설정(AppConfig.afterburnerModule)과 같다
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalSerializationBenchmark {
+
+    @Param({"reflection", "afterburner"})
+    public String jackson;
+
+    private ObjectMapper objectMapper;
+    private EntityModel<Event> eventModel;
+    private PagedModel<EntityModel<Event>> pagedModel;
+    private EntityModel<Errors> errorsModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        this.objectMapper = BenchmarkFixtures.halObjectMapper();
+        if ("afterburner".equals(this.jackson)) {
+            this.objectMapper.registerModule(new AfterburnerModule());
+        }
+
+        this.eventModel = EventResource.modelof(BenchmarkFixtures.event(1));
+        this.eventModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+
+        List<EntityModel<Event>> content = IntStream.range(0, 20)
+                .mapToObj(i -> EventResource.modelof(BenchmarkFixtures.event(i)))
+                .collect(Collectors.toList());
+        this.pagedModel = PagedModel.of(content, new PagedModel.PageMetadata(20, 1, 1000));
+        this.pagedModel.add(Link.of("http://localhost:8080/api/events?page=1&size=20").withSelfRel());
+        this.pagedModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+
+        EventDto eventDto = BenchmarkFixtures.eventDto();
+        eventDto.setBasePrice(10000);
+        eventDto.setEndEventDateTime(LocalDateTime.of(2020,12,1,0,0));
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        new EventValidator().validate(eventDto, errors);
+        this.errorsModel = ErrorsResource.modelOf(errors);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.unbindRequest();
+    }
+
+    @Benchmark
+    public byte[] entityModel() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.eventModel);
+    }
+
+    @Benchmark
+    public byte[] pagedModel() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.pagedModel);
+    }
+
+    @Benchmark
+    public byte[] errors() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.errorsModel);
+    }
+}
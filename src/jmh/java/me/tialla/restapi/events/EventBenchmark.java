@@ -0,0 +1,74 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.common.BenchmarkFixtures;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// 이벤트 요청 처리 경로의 도메인 로직: 검증, update(), 매핑, 링크 생성
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+
+    private EventValidator eventValidator;
+    private ModelMapper modelMapper;
+    private EventDto validEventDto;
+    private EventDto wrongEventDto;
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        this.eventValidator = new EventValidator();
+        this.modelMapper = new ModelMapper();
+        this.validEventDto = BenchmarkFixtures.eventDto();
+        this.wrongEventDto = BenchmarkFixtures.eventDto();
+        this.wrongEventDto.setBasePrice(10000);
+        this.wrongEventDto.setEndEventDateTime(LocalDateTime.of(2020,12,1,0,0));
+        this.event = BenchmarkFixtures.event(1);
+        BenchmarkFixtures.bindRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFixtures.unbindRequest();
+    }
+
+    @Benchmark
+    public Errors validateValid() {
+        Errors errors = new BeanPropertyBindingResult(this.validEventDto, "eventDto");
+        this.eventValidator.validate(this.validEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateWrong() {
+        Errors errors = new BeanPropertyBindingResult(this.wrongEventDto, "eventDto");
+        this.eventValidator.validate(this.wrongEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Event update() {
+        this.event.update();
+        return this.event;
+    }
+
+    @Benchmark
+    public Event modelMapperMap() {
+        return this.modelMapper.map(this.validEventDto, Event.class);
+    }
+
+    @Benchmark
+    public EntityModel<Event> modelof() {
+        return EventResource.modelof(this.event);
+    }
+}
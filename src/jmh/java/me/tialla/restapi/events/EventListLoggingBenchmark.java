@@ -0,0 +1,119 @@
+package me.tialla.restapi.events;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import me.tialla.restapi.Application;
+import me.tialla.restapi.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// 로깅 설정별 GET /api/events 처리량. test 프로필(H2)로 애플리케이션 전체를 띄우고 보안 필터를 포함한 MockMvc로 요청한다.
+// quiet: 기본 설정 (SQL/보안 추적 로그 꺼짐)
+// sampled: 추적 로그를 켬 (/actuator/loggers 로 켠 것과 같음). 10건 중 1건, 초당 50건까지
+// debug: 추적 로그를 표본 추출 없이 모두 남김 (AsyncAppender)
+// debug-sync: debug + 요청 스레드에서 바로 쓰는 콘솔 appender (이전 설정)
+// 로그는 target/jmh-logging.log 로 보낸다. JMH 출력과 섞이지 않으면서 쓰기 비용은 그대로 든다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class EventListLoggingBenchmark {
+
+    @Param({"quiet", "sampled", "debug", "debug-sync"})
+    public String logging;
+
+    private PrintStream stdout;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.stdout = System.out;
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream("target/jmh-logging.log", true)), true));
+
+        // application.properties보다 우선하도록 명령행 인자로 넘긴다
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        if (!"quiet".equals(this.logging)) {
+            args.add("--logging.level.org.hibernate.SQL=DEBUG");
+            args.add("--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=TRACE");
+            args.add("--logging.level.org.springframework.security=DEBUG");
+        }
+        if (this.logging.startsWith("debug")) {
+            args.add("--my-app.log-trace-sample-rate=1");
+            args.add("--my-app.log-trace-max-per-second=0");
+        }
+        this.context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .run(args.toArray(new String[0]));
+
+        if ("debug-sync".equals(this.logging)) {
+            useSynchronousAppender();
+        }
+
+        EventRepository eventRepository = this.context.getBean(EventRepository.class);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Event event = BenchmarkFixtures.event(i);
+            event.setId(null);
+            event.setManager(null);
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+        System.out.flush();
+        System.setOut(this.stdout);
+    }
+
+    @Benchmark
+    public MvcResult queryEvents() throws Exception {
+        return this.mockMvc.perform(get("/api/events")
+                .param("page", "0")
+                .param("size", "20"))
+                .andReturn();
+    }
+
+    private void useSynchronousAppender() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        AsyncAppender async = (AsyncAppender) root.getAppender("ASYNC");
+        Appender<ILoggingEvent> out = async.getAppender("OUT");
+        root.detachAppender(async);
+        root.addAppender(out);
+    }
+}
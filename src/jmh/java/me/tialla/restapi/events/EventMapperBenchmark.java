@@ -0,0 +1,53 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.common.BenchmarkFixtures;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// createEvent/updateEvent의 매핑 비용: ModelMapper vs EventMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private EventMapper eventMapper;
+    private EventDto eventDto;
+    private Event existingEvent;
+
+    @Setup
+    public void setUp() {
+        this.modelMapper = new ModelMapper();
+        this.eventMapper = new EventMapper();
+        this.eventDto = BenchmarkFixtures.eventDto();
+        this.existingEvent = this.eventMapper.toEvent(this.eventDto);
+        this.existingEvent.setId(1);
+    }
+
+    @Benchmark
+    public Event modelMapperCreate() {
+        return this.modelMapper.map(this.eventDto, Event.class);
+    }
+
+    @Benchmark
+    public Event eventMapperCreate() {
+        return this.eventMapper.toEvent(this.eventDto);
+    }
+
+    @Benchmark
+    public Event modelMapperUpdate() {
+        this.modelMapper.map(this.eventDto, this.existingEvent);
+        return this.existingEvent;
+    }
+
+    @Benchmark
+    public Event eventMapperUpdate() {
+        this.eventMapper.map(this.eventDto, this.existingEvent);
+        return this.existingEvent;
+    }
+}
@@ -3,12 +3,14 @@ package me.tialla.restapi.accounts;
 import lombok.*;
 
 import javax.persistence.*;
+import java.io.Serializable;
 import java.util.Set;
 
+// JdbcTokenStore에 인증 정보와 함께 직렬화된다
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @NoArgsConstructor @AllArgsConstructor
-public class Account {
+public class Account implements Serializable {
 
     @Id
     @GeneratedValue
@@ -5,20 +5,52 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class AccountAdapter extends User {
 
+    // 역할 조합은 몇 개 안되므로 조합별로 권한 목록을 한번만 만들어 공유한다
+    private static final Map<Set<AccountRole>, Set<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
     private Account account;
 
+    private final Set<GrantedAuthority> authorities;
+
+    // User의 생성자는 받은 권한을 새 Set으로 복사하므로 빈 목록을 넘기고 getAuthorities()에서 공유하는 Set을 돌려준다
     public AccountAdapter(Account account) {
-        super(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
-        this.account = account;
+        super(account.getEmail(), account.getPassword(), Collections.emptySet());
+        this.account = withoutPassword(account);
+        this.authorities = authorities(account.getRoles());
+    }
+
+    // 인증 정보는 JdbcTokenStore에 통째로 직렬화되므로 비밀번호 해시와 Hibernate 컬렉션(PersistentSet)이 없는 복사본을 둔다.
+    // 받은 Account는 accounts 캐시가 함께 쓰는 인스턴스라 직접 비울 수도 없다
+    private static Account withoutPassword(Account account) {
+        EnumSet<AccountRole> roles = EnumSet.noneOf(AccountRole.class);
+        roles.addAll(account.getRoles());
+        return Account.builder()
+                .id(account.getId())
+                .email(account.getEmail())
+                .roles(roles)
+                .build();
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return this.authorities;
     }
 
-    private static Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
-        return roles.stream().map(r->new SimpleGrantedAuthority("ROLE_"+r.name())).collect(Collectors.toSet());
+    private static Set<GrantedAuthority> authorities(Set<AccountRole> roles) {
+        EnumSet<AccountRole> key = EnumSet.noneOf(AccountRole.class);
+        key.addAll(roles);
+        return AUTHORITIES.computeIfAbsent(key, r -> r.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .collect(Collectors.toUnmodifiableSet()));
     }
 
     public Account getAccount() {
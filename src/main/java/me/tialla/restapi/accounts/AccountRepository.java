@@ -1,10 +1,22 @@
 package me.tialla.restapi.accounts;
 
+import me.tialla.restapi.configs.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Integer> {
+
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, unless = "#result == null")
     Optional<Account> findByEmail(String username);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#p0.email")
+    <S extends Account> S save(S account);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, allEntries = true)
+    void deleteAll();
 }
@@ -5,6 +5,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,7 +16,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     AccountRepository accountRepository;
@@ -33,4 +34,14 @@ public class AccountService implements UserDetailsService {
         Account account = accountRepository.findByEmail(username).orElseThrow(() ->new UsernameNotFoundException(username));
         return new AccountAdapter(account);
     }
+
+    // 로그인 성공시 저장된 해시가 현재 bcrypt 강도보다 약하면 DaoAuthenticationProvider가 새 해시로 호출한다
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        // findByEmail은 캐시에 있는 공유 인스턴스를 주므로 고치지 않고 id로 새로 읽은 것을 바꾼다
+        Integer id = accountRepository.findByEmail(user.getUsername()).orElseThrow(() -> new UsernameNotFoundException(user.getUsername())).getId();
+        Account account = accountRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        account.setPassword(newPassword);
+        return new AccountAdapter(this.accountRepository.save(account));
+    }
 }
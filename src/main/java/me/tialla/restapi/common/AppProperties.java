@@ -3,10 +3,16 @@ package me.tialla.restapi.common;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import me.tialla.restapi.events.EventRequestExecutor;
+import me.tialla.restapi.events.EventWriteBuffer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "my-app")
@@ -30,4 +36,70 @@ public class AppProperties {
 
     @NotEmpty
     private String clientSecret;
+
+    private long tokenCacheSize = 10_000;
+
+    // 다른 노드에서 폐기한 access token이 이 노드에서 유효하게 보일 수 있는 최대 시간
+    private Duration tokenCacheTtl = Duration.ofSeconds(30);
+
+    private long principalCacheSize = 10_000;
+
+    private Duration principalCacheTtl = Duration.ofMinutes(5);
+
+    private int passwordEncoderStrength = 10;
+
+    private int passwordHashThreads = Runtime.getRuntime().availableProcessors();
+
+    private int passwordHashQueueSize = 64;
+
+    private EventRequestExecutor.Mode eventExecutionMode = EventRequestExecutor.Mode.BLOCKING;
+
+    private int eventExecutorThreads = 32;
+
+    private int eventExecutorQueueSize = 512;
+
+    private Duration eventRequestTimeout = Duration.ofSeconds(10);
+
+    private int eventDefaultConcurrency = 64;
+
+    // ASYNC 모드에서 endpoint 이름(create, batch, query, keyset, search, get, update, patch)별 동시 실행 수. BLOCKING 모드에서는 쓰지 않는다
+    private Map<String, Integer> eventEndpointConcurrency = new HashMap<>();
+
+    // 요청 하나의 SQL 문 수/같은 SQL 반복 횟수/SQL 하나의 시간이 넘으면 StatementRecorderFilter가 경고한다
+    private int statementCountThreshold = 20;
+
+    private int repeatedStatementThreshold = 5;
+
+    private Duration slowStatementThreshold = Duration.ofMillis(500);
+
+    // @Scheduled 작업(EventStatusScheduler) 실행 여부. 테스트에서는 끄고 직접 호출한다
+    private boolean schedulingEnabled = true;
+
+    // 이벤트 상태 전환: tick 마다 다음 전환 시각만 비교하고, refresh 마다 DB에서 다시 읽는다
+    private Duration eventStatusTick = Duration.ofSeconds(1);
+
+    private Duration eventStatusRefresh = Duration.ofMinutes(1);
+
+    private Duration eventStatusLeaseTtl = Duration.ofSeconds(30);
+
+    private int eventStatusBatchSize = 500;
+
+    // 이벤트 수정 저장 방식. write-behind 는 window 마다 모아서 저장하므로 scheduling-enabled 가 켜져 있어야 한다 (아니면 시작하지 않는다)
+    private EventWriteBuffer.Mode eventWriteMode = EventWriteBuffer.Mode.DIRECT;
+
+    private Duration eventWriteBehindWindow = Duration.ofMillis(200);
+
+    // 버퍼에 둘 수 있는 이벤트 수. 넘치면 바로 저장한다
+    private int eventWriteBehindCapacity = 10_000;
+
+    // 익명 이벤트 조회 응답 캐시(EventResponseCache). ttl 이 지나면 stale-while-revalidate 동안 stale 응답을 주며 한 요청만 다시 만든다
+    private boolean eventResponseCacheEnabled = true;
+
+    private Duration eventResponseCacheTtl = Duration.ofSeconds(5);
+
+    private Duration eventResponseCacheStaleWhileRevalidate = Duration.ofSeconds(30);
+
+    private DataSize eventResponseCacheMaxSize = DataSize.ofMegabytes(64);
+
+    private DataSize eventResponseCacheMaxEntrySize = DataSize.ofKilobytes(512);
 }
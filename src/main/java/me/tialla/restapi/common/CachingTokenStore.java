@@ -0,0 +1,190 @@
+package me.tialla.restapi.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 영속 TokenStore 앞에 두는 로컬 캐시. 자주 쓰이는 access token 검증은 DB까지 가지 않는다.
+// 항목은 토큰 만료 시각과 ttl 중 먼저 오는 때에 사라지고, 이 노드에서 토큰이 저장/삭제되면 바로 무효화된다.
+// 다른 노드에서 폐기한 토큰은 이 노드에서 최대 ttl 동안 유효하게 보이므로 ttl은 초 단위로 짧게 둔다.
+public class CachingTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+
+    private final Cache<String, CachedToken> accessTokens;
+
+    // refresh token → 캐시에 있는 access token. 항목이 캐시에서 빠지면 같이 지운다
+    private final Map<String, Set<String>> accessTokensByRefreshToken = new ConcurrentHashMap<>();
+
+    public CachingTokenStore(TokenStore delegate, long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.accessTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(ttl.toNanos()))
+                .executor(Runnable::run) // 색인을 지우는 removalListener를 무효화한 스레드에서 바로 실행한다
+                .removalListener((String tokenValue, CachedToken cachedToken, RemovalCause cause) -> unindex(tokenValue, cachedToken))
+                .recordStats()
+                .build();
+        // Prometheus는 같은 이름의 지표가 같은 태그를 가져야 하므로 Spring 캐시 지표처럼 name, cacheManager 태그를 붙인다
+        CaffeineCacheMetrics.monitor(meterRegistry, this.accessTokens, "oauth2AccessTokens",
+                "name", "oauth2AccessTokens", "cacheManager", "tokenStore");
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        CachedToken cachedToken = load(token);
+        return cachedToken == null ? null : cachedToken.authentication;
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        CachedToken cachedToken = load(tokenValue);
+        return cachedToken == null ? null : cachedToken.accessToken;
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        this.delegate.storeAccessToken(token, authentication);
+        this.accessTokens.invalidate(token.getValue());
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        this.delegate.removeAccessToken(token);
+        this.accessTokens.invalidate(token.getValue());
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        this.delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+        Set<String> tokenValues = this.accessTokensByRefreshToken.get(refreshToken.getValue());
+        if (tokenValues != null) {
+            this.accessTokens.invalidateAll(Set.copyOf(tokenValues));
+        }
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        this.delegate.storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return this.delegate.readRefreshToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return this.delegate.readAuthenticationForRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        this.delegate.removeRefreshToken(token);
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return this.delegate.getAccessToken(authentication);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return this.delegate.findTokensByClientIdAndUserName(clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return this.delegate.findTokensByClientId(clientId);
+    }
+
+    // 없는 토큰은 캐시하지 않는다 (loader가 null을 반환하면 항목이 만들어지지 않음)
+    private CachedToken load(String tokenValue) {
+        return this.accessTokens.get(tokenValue, value -> {
+            OAuth2AccessToken accessToken = this.delegate.readAccessToken(value);
+            if (accessToken == null) {
+                return null;
+            }
+            OAuth2Authentication authentication = this.delegate.readAuthentication(accessToken);
+            if (authentication == null) {
+                return null;
+            }
+            OAuth2RefreshToken refreshToken = accessToken.getRefreshToken();
+            if (refreshToken != null) {
+                this.accessTokensByRefreshToken.computeIfAbsent(refreshToken.getValue(), key -> ConcurrentHashMap.newKeySet()).add(value);
+            }
+            return new CachedToken(accessToken, authentication);
+        });
+    }
+
+    private void unindex(String tokenValue, CachedToken cachedToken) {
+        OAuth2RefreshToken refreshToken = cachedToken == null ? null : cachedToken.accessToken.getRefreshToken();
+        if (refreshToken != null) {
+            this.accessTokensByRefreshToken.computeIfPresent(refreshToken.getValue(), (key, tokenValues) -> {
+                tokenValues.remove(tokenValue);
+                return tokenValues.isEmpty() ? null : tokenValues;
+            });
+        }
+    }
+
+    private static class CachedToken {
+
+        private final OAuth2AccessToken accessToken;
+
+        private final OAuth2Authentication authentication;
+
+        private CachedToken(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+            this.accessToken = accessToken;
+            this.authentication = authentication;
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedToken> {
+
+        private final long ttlNanos;
+
+        private TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            Date expiration = value.accessToken.getExpiration();
+            if (expiration == null) {
+                return this.ttlNanos;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remaining, this.ttlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package me.tialla.restapi.common;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// scheduler_lease 테이블(schema.sql)의 행 하나를 임대로 써서 여러 노드 중 한 곳에서만 작업하게 한다.
+// 임대는 가진 노드가 다시 얻을 때 연장되고, 만료되면 다른 노드가 가져간다. 검사와 갱신이 UPDATE 문 하나라서 두 노드가 함께 얻을 수 없다.
+// 만료 시각은 정하는 것도 비교하는 것도 DB의 current_timestamp로 해서 노드마다 시계가 어긋나도 임대가 겹치지 않는다.
+@Component
+public class DatabaseLease {
+
+    // DB 시계 기준 지금부터 ttl(밀리초) 뒤. H2는 자료형을 모르는 ?를 계산식에 쓸 수 없어 형을 밝힌다
+    private static final String EXPIRES_AT = "current_timestamp + cast(? as bigint) * interval '0.001' second";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String owner;
+
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+    public DatabaseLease(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    public boolean tryAcquire(String name, Duration ttl) {
+        long ttlMillis = ttl.toMillis();
+        int updated = this.jdbcTemplate.update("update scheduler_lease set owner = ?, expires_at = " + EXPIRES_AT + " " +
+                "where name = ? and (owner = ? or expires_at < current_timestamp)", this.owner, ttlMillis, name, this.owner);
+        if (updated == 0) {
+            try {
+                updated = this.jdbcTemplate.update("insert into scheduler_lease (name, owner, expires_at) " +
+                        "select ?, ?, " + EXPIRES_AT + " where not exists (select 1 from scheduler_lease where name = ?)", name, this.owner, ttlMillis, name);
+            } catch (DuplicateKeyException e) {
+                updated = 0; // 다른 노드가 방금 만들었다
+            }
+        }
+
+        if (updated == 1) {
+            this.held.add(name);
+            return true;
+        }
+        this.held.remove(name);
+        return false;
+    }
+
+    // 종료할 때 가진 임대를 바로 만료시켜 다른 노드가 기다리지 않게 한다
+    @PreDestroy
+    public void releaseAll() {
+        for (String name : this.held) {
+            try {
+                this.jdbcTemplate.update("update scheduler_lease set expires_at = current_timestamp where name = ? and owner = ?",
+                        name, this.owner);
+            } catch (DataAccessException e) {
+                // DB가 먼저 내려갔으면 만료 시각까지 기다리게 된다
+            }
+        }
+        this.held.clear();
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -10,6 +10,13 @@ import java.io.IOException;
 
 @JsonComponent
 public class ErrorsSerializer extends JsonSerializer<Errors> {
+
+    // "errors" 필드 이름을 직접 쓰므로 @JsonUnwrapped 로 감싸는 객체에 그대로 펼쳐 넣는다
+    @Override
+    public boolean isUnwrappingSerializer() {
+        return true;
+    }
+
     @Override
     public void serialize(Errors errors, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
         jsonGenerator.writeFieldName("errors");
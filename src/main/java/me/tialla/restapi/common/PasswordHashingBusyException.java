@@ -0,0 +1,30 @@
+package me.tialla.restapi.common;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+
+// InternalAuthenticationServiceException이라 ProviderManager가 다른 provider로 재시도하지 않고,
+// cause의 OAuth2Exception을 DefaultWebResponseExceptionTranslator가 찾아 429로 응답한다.
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingBusyException() {
+        super("Too many password hashing requests", new TemporarilyUnavailableException());
+    }
+
+    public static class TemporarilyUnavailableException extends OAuth2Exception {
+
+        public TemporarilyUnavailableException() {
+            super("Too many login attempts, try again later");
+        }
+
+        @Override
+        public String getOAuth2ErrorCode() {
+            return "temporarily_unavailable";
+        }
+
+        @Override
+        public int getHttpErrorCode() {
+            return 429;
+        }
+    }
+}
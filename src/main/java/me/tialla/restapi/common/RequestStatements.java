@@ -0,0 +1,75 @@
+package me.tialla.restapi.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+// HTTP 요청 하나가 실행한 SQL 문 기록. StatementRecordingListener(datasource-proxy)가 채우고 StatementRecorderFilter가 판정한다.
+// 요청 속성(ATTRIBUTE)으로도 남기므로 테스트에서 MvcResult로 꺼내 N+1 여부를 확인할 수 있다.
+public class RequestStatements {
+
+    public static final String ATTRIBUTE = RequestStatements.class.getName();
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    // 같은 SQL(파라미터 제외)별 실행 횟수. ASYNC 모드에서는 요청 스레드와 event-request-* 스레드가 번갈아 쓰므로 동기화한다
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+    private int count;
+
+    private long slowestMillis;
+
+    private String slowest;
+
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestStatements statements) {
+        if (statements == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statements);
+        }
+    }
+
+    // 요청 스레드가 아닌 곳(ASYNC 모드의 핸들러)에서 실행한 SQL도 같은 요청에 기록되도록 묶어준다
+    public static <T> T callWith(RequestStatements statements, Callable<T> work) throws Exception {
+        RequestStatements previous = CURRENT.get();
+        bind(statements);
+        try {
+            return work.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    public synchronized void record(String sql, long elapsedMillis) {
+        this.count++;
+        this.executions.merge(sql, 1, Integer::sum);
+        if (this.slowest == null || elapsedMillis > this.slowestMillis) {
+            this.slowestMillis = elapsedMillis;
+            this.slowest = sql;
+        }
+    }
+
+    public synchronized int getCount() {
+        return this.count;
+    }
+
+    // threshold 번 넘게 실행된 같은 SQL (N+1 후보)
+    public synchronized Map<String, Integer> getRepeated(int threshold) {
+        return this.executions.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public synchronized long getSlowestMillis() {
+        return this.slowestMillis;
+    }
+
+    public synchronized String getSlowest() {
+        return this.slowest;
+    }
+}
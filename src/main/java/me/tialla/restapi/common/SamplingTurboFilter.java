@@ -0,0 +1,112 @@
+package me.tialla.restapi.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// SQL/보안 같은 DEBUG/TRACE 추적 로그를 표본 추출(sampleRate 건 중 1건)하고 초당 maxPerSecond 건으로 제한한다. (logback-spring.xml)
+// 로거 레벨은 /actuator/loggers 로 켜고 끄며, 켜더라도 이 필터를 통과한 것만 남는다. INFO 이상은 건드리지 않는다.
+// 대부분의 라이브러리는 isDebugEnabled()로 먼저 물어보고 메시지를 만든다. 여기서 거절하면 SQL 포맷팅 비용도 들지 않는다.
+// 물어본 뒤 이어지는 실제 로그 호출은 같은 스레드의 결정을 그대로 따른다. (한 건을 두 번 세지 않도록)
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final ThreadLocal<Boolean> ACCEPTED = new ThreadLocal<>();
+
+    private String[] loggers = new String[0];
+
+    private int sampleRate = 1;
+
+    private int maxPerSecond;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong window = new AtomicLong();
+
+    private final AtomicInteger acceptedInWindow = new AtomicInteger();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.levelInt > Level.DEBUG_INT || !isTraced(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // 로거 레벨에서 어차피 걸러질 호출은 표본/한도를 쓰지 않는다
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        boolean probe = format == null;
+        if (!probe && Boolean.TRUE.equals(ACCEPTED.get())) {
+            ACCEPTED.remove();
+            return FilterReply.NEUTRAL;
+        }
+
+        boolean accepted = sample() && withinRate();
+        if (probe && accepted) {
+            ACCEPTED.set(Boolean.TRUE);
+        }
+        if (!accepted) {
+            this.dropped.incrementAndGet();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean isTraced(String name) {
+        for (String prefix : this.loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean sample() {
+        return this.sampleRate <= 1 || this.sequence.incrementAndGet() % this.sampleRate == 0;
+    }
+
+    private boolean withinRate() {
+        if (this.maxPerSecond <= 0) {
+            return true;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long current = this.window.get();
+        if (current != second && this.window.compareAndSet(current, second)) {
+            this.acceptedInWindow.set(0);
+        }
+        return this.acceptedInWindow.incrementAndGet() <= this.maxPerSecond;
+    }
+
+    // 쉼표로 구분한 로거 이름 접두사
+    public void setLoggers(String loggers) {
+        this.loggers = loggers.trim().isEmpty() ? new String[0] : loggers.trim().split("\\s*,\\s*");
+    }
+
+    // 1이면 모두 남긴다
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    // 0 이하면 제한하지 않는다
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    public int getMaxPerSecond() {
+        return this.maxPerSecond;
+    }
+
+    public long getDropped() {
+        return this.dropped.get();
+    }
+}
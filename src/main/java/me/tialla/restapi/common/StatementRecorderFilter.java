@@ -0,0 +1,103 @@
+package me.tialla.restapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+// 요청마다 실행한 SQL을 모아(RequestStatements) 다음 경우 WARN 로그와 db.request.flagged{reason} 카운터로 알린다.
+// statements: SQL 문이 my-app.statement-count-threshold 개를 넘음
+// repeated: 같은 SQL이 my-app.repeated-statement-threshold 번을 넘게 실행됨 (N+1)
+// slow: 한 SQL이 my-app.slow-statement-threshold 이상 걸림
+// ASYNC 요청은 async dispatch가 끝날 때 판정한다. 인증 필터의 토큰/계정 조회도 포함하도록 가장 앞에 둔다.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementRecorderFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementRecorderFilter.class);
+
+    private final AppProperties appProperties;
+
+    private final Counter tooManyStatements;
+
+    private final Counter repeatedStatements;
+
+    private final Counter slowStatements;
+
+    public StatementRecorderFilter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.appProperties = appProperties;
+        this.tooManyStatements = flagged(meterRegistry, "statements");
+        this.repeatedStatements = flagged(meterRegistry, "repeated");
+        this.slowStatements = flagged(meterRegistry, "slow");
+    }
+
+    private static Counter flagged(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("db.request.flagged")
+                .description("Requests flagged by the per-request SQL statement recorder")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements statements = (RequestStatements) request.getAttribute(RequestStatements.ATTRIBUTE);
+        if (statements == null) {
+            statements = new RequestStatements();
+            request.setAttribute(RequestStatements.ATTRIBUTE, statements);
+        }
+
+        RequestStatements.bind(statements);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatements.bind(null);
+        }
+
+        if (!request.isAsyncStarted()) {
+            report(request, response, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, RequestStatements statements) {
+        boolean tooMany = statements.getCount() > this.appProperties.getStatementCountThreshold();
+        Map<String, Integer> repeated = statements.getRepeated(this.appProperties.getRepeatedStatementThreshold());
+        boolean slow = statements.getSlowest() != null
+                && statements.getSlowestMillis() >= this.appProperties.getSlowStatementThreshold().toMillis();
+        if (!tooMany && repeated.isEmpty() && !slow) {
+            return;
+        }
+
+        if (tooMany) {
+            this.tooManyStatements.increment();
+        }
+        if (!repeated.isEmpty()) {
+            this.repeatedStatements.increment();
+        }
+        if (slow) {
+            this.slowStatements.increment();
+        }
+        // kv(): 콘솔에서는 key=value, prod(JSON)에서는 각각 필드로 나온다
+        log.warn("flagged request {} {} {} {} {} {} {}",
+                kv("method", request.getMethod()), kv("uri", request.getRequestURI()), kv("status", response.getStatus()),
+                kv("statements", statements.getCount()), kv("repeated", repeated),
+                kv("slowestMillis", statements.getSlowestMillis()), kv("slowest", statements.getSlowest()));
+    }
+}
@@ -0,0 +1,26 @@
+package me.tialla.restapi.common;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// datasource-proxy 리스너: 현재 요청(RequestStatements)에 실행한 SQL을 남긴다. JDBC batch는 실행 한 번으로 센다
+public class StatementRecordingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = RequestStatements.current();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            statements.record(queryInfo.getQuery(), execInfo.getElapsedTime());
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package me.tialla.restapi.configs;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import me.tialla.restapi.accounts.Account;
 import me.tialla.restapi.accounts.AccountRepository;
 import me.tialla.restapi.accounts.AccountRole;
 import me.tialla.restapi.accounts.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
 import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.OffloadingPasswordEncoder;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
 
+import java.util.Map;
 import java.util.Set;
 
 @Configuration
@@ -24,9 +31,22 @@ public class AppConfig {
         return new ModelMapper();
     }
 
+    // Jackson Module 빈은 Spring Boot가 ObjectMapper에 등록한다. (HAL ObjectMapper는 이를 복사해서 쓴다)
+    // 리플렉션 대신 생성한 바이트코드로 getter를 호출한다. 출력은 같다 (EventHalSerializationTest)
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public Module afterburnerModule(){
+        return new AfterburnerModule();
+    }
+
+    // bcrypt 강도는 설정값을 따르고, 더 낮은 강도로 저장된 해시는 로그인할 때 다시 해시한다 (AccountService.updatePassword)
+    // {noop}, {pbkdf2} 등 다른 id로 저장된 해시는 PasswordEncoderFactories의 encoder로 확인하고, 로그인할 때 bcrypt로 다시 해시한다
+    @Bean
+    public PasswordEncoder passwordEncoder(AppProperties appProperties, MeterRegistry meterRegistry){
+        DelegatingPasswordEncoder bcrypt = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(appProperties.getPasswordEncoderStrength())));
+        bcrypt.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return new OffloadingPasswordEncoder(bcrypt, appProperties.getPasswordHashThreads(),
+                appProperties.getPasswordHashQueueSize(), meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,75 @@
+package me.tialla.restapi.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.events.Event;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 캐시 크기/만료는 spring.cache.caffeine.spec, hit/miss/eviction 지표는 actuator의 cache.* 메트릭으로 노출
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String EVENTS = "events";
+
+    public static final String ACCOUNTS = "accounts";
+
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties, AppProperties appProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (EVENTS.equals(name)) {
+                    return new TransactionAwareCacheDecorator(new EventSnapshotCache(name, cache, isAllowNullValues()));
+                }
+                return super.adaptCaffeineCache(name, cache);
+            }
+        };
+        if (cacheProperties.getCaffeine().getSpec() != null) {
+            cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+
+        // 인증 주체(email -> Account) 캐시는 권한 변경이 늦게 반영되지 않도록 TTL을 따로 둔다
+        cacheManager.registerCustomCache(ACCOUNTS, Caffeine.newBuilder()
+                .maximumSize(appProperties.getPrincipalCacheSize())
+                .expireAfterWrite(appProperties.getPrincipalCacheTtl())
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    // 이벤트 캐시는 인스턴스를 그대로 두지 않고 넣을 때와 꺼낼 때 복사한다. 수정 요청이 꺼낸 이벤트를 바꾸거나 저장에 실패해도
+    // 다른 요청이 읽는 캐시 값은 그대로이고, 커밋된 저장만 (TransactionAwareCacheDecorator로 커밋 뒤에) 캐시에 들어간다
+    static class EventSnapshotCache extends CaffeineCache {
+
+        EventSnapshotCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+
+        private static Object copy(Object value) {
+            return value instanceof Event ? ((Event) value).copy() : value;
+        }
+    }
+}
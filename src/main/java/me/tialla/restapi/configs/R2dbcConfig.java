@@ -0,0 +1,47 @@
+package me.tialla.restapi.configs;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.autoconfigure.r2dbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+
+import javax.annotation.PreDestroy;
+
+// reactive 프로필에서 이벤트 API가 쓰는 R2DBC 커넥션 풀 (spring.r2dbc.*)
+// DataSourceAutoConfiguration은 ConnectionFactory 빈이 있으면 물러나서 JPA(계정, 토큰)까지 꺼지므로,
+// R2DBC 자동 설정은 application.properties에서 빼고 풀은 빈으로 등록하지 않은 채 템플릿 안에서만 쓴다.
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate(R2dbcProperties properties) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration
+                .builder(ConnectionFactoryBuilder.of(properties, () -> EmbeddedDatabaseConnection.NONE).build())
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime());
+        if (pool.getValidationQuery() != null) {
+            configuration.validationQuery(pool.getValidationQuery());
+        }
+        this.connectionPool = new ConnectionPool(configuration.build());
+        return new R2dbcEntityTemplate(this.connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (this.connectionPool != null) {
+            this.connectionPool.dispose();
+        }
+    }
+}
@@ -23,6 +23,12 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
             .anonymous()
                 .and()
             .authorizeRequests()
+                // 상태 확인과 Prometheus 수집은 토큰 없이 (로드밸런서/스크레이퍼)
+                .mvcMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus")
+                    .permitAll()
+                // 로그 레벨 변경(/actuator/loggers)과 지표 조회는 운영자만
+                .mvcMatchers("/actuator/**")
+                    .hasRole("ADMIN")
                 .mvcMatchers(HttpMethod.GET, "/api/**")
                     .permitAll()
             .anyRequest()
@@ -0,0 +1,12 @@
+package me.tialla.restapi.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// my-app.scheduling-enabled=false 이면 @Scheduled 메서드를 실행하지 않는다 (테스트)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "my-app", name = "scheduling-enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
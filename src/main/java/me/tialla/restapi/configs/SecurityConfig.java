@@ -1,6 +1,9 @@
 package me.tialla.restapi.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import me.tialla.restapi.accounts.AccountService;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.CachingTokenStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -12,7 +15,9 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.provider.token.TokenStore;
-import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
 
 @Configuration
 @EnableWebSecurity
@@ -24,9 +29,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    // 토큰은 DB에 저장해 재시작과 여러 노드에서도 유지하고, 검증은 로컬 캐시에서 처리한다.
     @Bean
-    public TokenStore tokenStore(){
-        return new InMemoryTokenStore();
+    public TokenStore tokenStore(DataSource dataSource, AppProperties appProperties, MeterRegistry meterRegistry){
+        return new CachingTokenStore(new JdbcTokenStore(dataSource), appProperties.getTokenCacheSize(),
+                appProperties.getTokenCacheTtl(), meterRegistry);
     }
 
     // AutherizationServer랑 ResourceServer에서 해당 AuthenticationManager를 참조할 수 있도록 bean으로 노출
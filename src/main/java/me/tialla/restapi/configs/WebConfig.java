@@ -0,0 +1,32 @@
+package me.tialla.restapi.configs;
+
+import me.tialla.restapi.events.EventMetrics;
+import me.tialla.restapi.events.EventMetricsInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// 이벤트 API 요청 지표(EventMetrics) 연결
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EventMetrics eventMetrics;
+
+    public WebConfig(EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EventMetricsInterceptor(this.eventMetrics)).addPathPatterns("/api/events/**");
+    }
+
+    // 요청마다 SQL 문 수를 센다
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, this.eventMetrics);
+    }
+}
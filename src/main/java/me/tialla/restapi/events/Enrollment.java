@@ -0,0 +1,32 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.*;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountSerializer;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 이벤트 참가 신청. 같은 계정은 한 이벤트에 한 번만 신청할 수 있다 (unique 제약)
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_enrollment_event_account", columnNames = {"event_id", "account_id"}))
+public class Enrollment {
+
+    @Id
+    @GeneratedValue
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JsonIgnore // event 링크로 노출
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JsonSerialize(using = AccountSerializer.class)
+    private Account account;
+
+    private LocalDateTime enrolledDateTime;
+}
@@ -0,0 +1,64 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.CurrentUser;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.net.URI;
+import java.util.Optional;
+
+// 이벤트 참가 신청. JPA로만 처리하므로 reactive 프로필에서도 그대로 쓴다.
+// 신청 중이 아니거나 자리가 없거나 이미 신청했으면 409
+@Controller
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE)
+public class EnrollmentController {
+
+    private final EventRepository eventRepository;
+
+    private final EnrollmentService enrollmentService;
+
+    private final EventRequestExecutor eventRequestExecutor;
+
+    public EnrollmentController(EventRepository eventRepository, EnrollmentService enrollmentService,
+                                EventRequestExecutor eventRequestExecutor) {
+        this.eventRepository = eventRepository;
+        this.enrollmentService = enrollmentService;
+        this.eventRequestExecutor = eventRequestExecutor;
+    }
+
+    @PostMapping
+    public Object enroll(@PathVariable Integer eventId,
+                         @CurrentUser Account currentUser) throws Exception {
+        return this.eventRequestExecutor.execute("enroll", () -> {
+            // 캐시된 조회로 없는 이벤트만 먼저 거른다. 신청 가능 여부는 캐시가 아닌 DB의 조건부 UPDATE로 판단한다
+            if(this.eventRepository.findById(eventId).isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+
+            Optional<Enrollment> enrollment;
+            try {
+                enrollment = this.enrollmentService.enroll(eventId, currentUser);
+            } catch (DataIntegrityViolationException e) {
+                return new ResponseEntity(HttpStatus.CONFLICT); //이미 신청했다.
+            }
+            if(enrollment.isEmpty()){
+                return new ResponseEntity(HttpStatus.CONFLICT); //신청 기간이 아니거나 자리가 없다.
+            }
+
+            String enrollments = EventLinks.event(eventId) + "/enrollments";
+            EntityModel<Enrollment> enrollmentResource = EntityModel.of(enrollment.get());
+            enrollmentResource.add(EventLinks.event(eventId, "event"));
+            enrollmentResource.add(Link.of("/docs/index.html#resources-enrollments-create").withRel("profile"));
+            return ResponseEntity.created(URI.create(enrollments)).body(enrollmentResource);
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package me.tialla.restapi.events;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+
+    long countByEventId(Integer eventId);
+}
@@ -0,0 +1,45 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// 참가 신청. 인원 검사는 EventRepository.incrementEnrolledCount의 조건부 UPDATE 한 번으로 한다.
+// UPDATE가 잡은 행 잠금은 신청 insert 하나 뒤 커밋까지만 유지된다. 이미 신청한 계정이면 unique 제약 위반으로 전체가 롤백되어
+// 늘린 인원도 되돌아간다. (DataIntegrityViolationException)
+@Service
+public class EnrollmentService {
+
+    private final EventRepository eventRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final AccountRepository accountRepository;
+
+    public EnrollmentService(EventRepository eventRepository, EnrollmentRepository enrollmentRepository,
+                             AccountRepository accountRepository) {
+        this.eventRepository = eventRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    // 신청 중이 아니거나 자리가 없으면 empty
+    @Transactional
+    public Optional<Enrollment> enroll(Integer eventId, Account account) {
+        if (this.eventRepository.incrementEnrolledCount(eventId, EventStatus.BEGAN_ENROLLMENT) == 0) {
+            return Optional.empty();
+        }
+
+        // 이벤트와 계정은 FK로만 쓰므로 읽지 않고 참조만 만든다
+        Enrollment enrollment = Enrollment.builder()
+                .event(this.eventRepository.getOne(eventId))
+                .account(this.accountRepository.getOne(account.getId()))
+                .enrolledDateTime(LocalDateTime.now())
+                .build();
+        return Optional.of(this.enrollmentRepository.saveAndFlush(enrollment));
+    }
+}
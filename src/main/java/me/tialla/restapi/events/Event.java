@@ -1,20 +1,37 @@
 package me.tialla.restapi.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.*;
 import me.tialla.restapi.accounts.Account;
 import me.tialla.restapi.accounts.AccountSerializer;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
-@Builder @AllArgsConstructor @NoArgsConstructor
+@Builder(toBuilder = true) @AllArgsConstructor @NoArgsConstructor
 @Getter @Setter @EqualsAndHashCode(of = "id") //@EqualsAndHashCode(of = {"id", "account"}) 여러개 표현방법
 @Entity
+@DynamicUpdate // UPDATE 문에는 바뀐 컬럼만 넣는다 (PATCH 처럼 일부만 바꾸는 수정)
+@Table(indexes = {
+        @Index(name = "idx_event_begin_event_date_time_id", columnList = "beginEventDateTime, id"),
+        @Index(name = "idx_event_last_modified_date_time", columnList = "lastModifiedDateTime"),
+        @Index(name = "idx_event_event_status_begin_event_date_time", columnList = "eventStatus, beginEventDateTime"),
+        // EventStatusScheduler: 상태별로 다음 전환 시각을 찾고 시각이 지난 이벤트만 읽는다
+        @Index(name = "idx_event_event_status_begin_enrollment_date_time", columnList = "eventStatus, beginEnrollmentDateTime"),
+        @Index(name = "idx_event_event_status_close_enrollment_date_time", columnList = "eventStatus, closeEnrollmentDateTime"),
+        @Index(name = "idx_event_event_status_end_event_date_time", columnList = "eventStatus, endEventDateTime"),
+        @Index(name = "idx_event_manager_id", columnList = "manager_id")
+})
 public class Event {
 
+    // pooled optimizer: insert 50건마다 한 번만 시퀀스를 읽는다 (일괄 생성시 JDBC batch와 함께 사용)
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     private Integer id;
 
     private String name;
@@ -33,10 +50,46 @@ public class Event {
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DRAFT;
 
-    @ManyToOne
+    // 신청 인원. EventRepository.incrementEnrolledCount의 조건부 UPDATE로만 바뀐다.
+    // 엔티티를 저장할 때 캐시된 옛 값으로 덮어쓰지 않도록 update 대상에서 뺀다 (R2DBC insert는 DB 기본값 0)
+    @JsonIgnore
+    @Column(updatable = false, columnDefinition = "integer default 0 not null")
+    private int enrolledCount;
+
+    @Version
+    @JsonIgnore // ETag 헤더로 노출
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonIgnore // Last-Modified 헤더로 노출
+    private LocalDateTime lastModifiedDateTime;
+
+    // 검색용 name + description (소문자). PostgreSQL에서는 이 값으로 search_vector(tsvector)가 만들어진다
+    @JsonIgnore
+    @Column(length = 511)
+    private String searchText;
+
+    @ManyToOne(fetch = FetchType.LAZY) // 응답에는 manager의 id만 쓰이므로 FK만 읽고 Account는 로딩하지 않는다
     @JsonSerialize(using = AccountSerializer.class)
     private Account manager;
 
+    // 프록시를 초기화하지 않도록 equals 대신 id로 비교
+    public boolean isManagedBy(Account account) {
+        return this.manager != null && account != null && this.manager.getId().equals(account.getId());
+    }
+
+    // 캐시(CacheConfig)와 쓰기 버퍼에 둔 인스턴스는 여러 요청이 함께 읽으므로 바꿀 때는 복사본을 쓴다. manager는 id만 읽으므로 같은 참조를 둔다
+    public Event copy() {
+        return toBuilder().build();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchText() {
+        String text = (this.name == null ? "" : this.name) + " " + (this.description == null ? "" : this.description);
+        this.searchText = text.trim().toLowerCase(Locale.ROOT);
+    }
+
     public void update() {
         // Update free
         if(this.basePrice == 0 && this.maxPrice == 0){
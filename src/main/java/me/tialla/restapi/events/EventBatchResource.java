@@ -0,0 +1,33 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Getter;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 일괄 생성 결과: 저장된 이벤트와, 요청 배열의 index별 검증 오류(ErrorsSerializer 형식)
+@Getter
+public class EventBatchResource extends RepresentationModel<EventBatchResource> {
+
+    private final List<EntityModel<Event>> created = new ArrayList<>();
+
+    private final List<RejectedEvent> rejected = new ArrayList<>();
+
+    @Getter
+    public static class RejectedEvent {
+
+        private final int index;
+
+        @JsonUnwrapped
+        private final Errors errors;
+
+        public RejectedEvent(int index, Errors errors) {
+            this.index = index;
+            this.errors = errors;
+        }
+    }
+}
@@ -1,72 +1,133 @@
 package me.tialla.restapi.events;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import me.tialla.restapi.accounts.Account;
 import me.tialla.restapi.accounts.AccountAdapter;
 import me.tialla.restapi.accounts.CurrentUser;
 import me.tialla.restapi.common.ErrorsResource;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
 public class EventController {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 2000;
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final EventRepository eventRepository;
 
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
 
     private final EventValidator eventValidator;
 
-    public EventController(EventRepository eventRepository, ModelMapper modelMapper, EventValidator eventValidator) {
+    private final SpringValidatorAdapter beanValidator;
+
+    private final EventExporter eventExporter;
+
+    private final EventTextSearch eventTextSearch;
+
+    private final EventRequestExecutor eventRequestExecutor;
+
+    private final EventMetrics eventMetrics;
+
+    private final EventStatusScheduler eventStatusScheduler;
+
+    private final EventWriteBuffer eventWriteBuffer;
+
+    private final ObjectMapper objectMapper;
+
+    public EventController(EventRepository eventRepository, EventMapper eventMapper, EventValidator eventValidator,
+                           Validator validator, EventExporter eventExporter, EventTextSearch eventTextSearch,
+                           EventRequestExecutor eventRequestExecutor, EventMetrics eventMetrics,
+                           EventStatusScheduler eventStatusScheduler, EventWriteBuffer eventWriteBuffer,
+                           ObjectMapper objectMapper) {
         this.eventRepository = eventRepository;
-        this.modelMapper = modelMapper;
+        this.eventMapper = eventMapper;
         this.eventValidator = eventValidator;
+        this.beanValidator = new SpringValidatorAdapter(validator);
+        this.eventExporter = eventExporter;
+        this.eventTextSearch = eventTextSearch;
+        this.eventRequestExecutor = eventRequestExecutor;
+        this.eventMetrics = eventMetrics;
+        this.eventStatusScheduler = eventStatusScheduler;
+        this.eventWriteBuffer = eventWriteBuffer;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto,
-                                      Errors errors,
-                                      @CurrentUser Account currentUser){
-        if(errors.hasErrors()){
-            return badRequest(errors);
-        }
+    public Object createEvent(@RequestBody @Valid EventDto eventDto,
+                              Errors errors,
+                              @CurrentUser Account currentUser) throws Exception {
+        return this.eventRequestExecutor.execute("create", () -> {
+            if(errors.hasErrors()){
+                return badRequest(errors);
+            }
 
-        eventValidator.validate(eventDto, errors);
-        if(errors.hasErrors()){
-            return badRequest(errors);
-        }
+            this.eventMetrics.time(EventMetrics.VALIDATION, () -> eventValidator.validate(eventDto, errors));
+            if(errors.hasErrors()){
+                return badRequest(errors);
+            }
 
-        Event event = modelMapper.map(eventDto, Event.class); //eventDto에 있는것을 Event.class타입의 인스턴스로 맵핑
-        event.update();
-        event.setManager(currentUser);
-        Event newEvent = this.eventRepository.save(event);
+            Event event = this.eventMetrics.time(EventMetrics.MAPPING, () -> {
+                Event mapped = eventMapper.toEvent(eventDto); //eventDto에 있는것을 Event 인스턴스로 맵핑
+                mapped.update();
+                mapped.setManager(currentUser);
+                return mapped;
+            });
+            Event newEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventRepository.save(event));
 
-        WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class);
-        URI createdUri = selfLinkBuilder.toUri();
+            URI createdUri = URI.create(EventLinks.events());
 
 //        List<Link> links = Arrays.asList(
 //                selfLinkBuilder.slash(newEvent.getId()).withSelfRel(),
@@ -76,79 +137,414 @@ public class EventController {
 //        );
 //        EntityModel eventResource = EntityModel.of(newEvent, links);
 
-        EntityModel eventResource = EventResource.modelof(newEvent);
-        eventResource.add(selfLinkBuilder.withRel("query-events"));
-        eventResource.add(selfLinkBuilder.slash(newEvent.getId()).withRel("update-event"));
+            EntityModel eventResource = this.eventMetrics.time(EventMetrics.MAPPING, () -> {
+                EntityModel<Event> model = EventResource.modelof(newEvent);
+                model.add(EventLinks.events("query-events"));
+                model.add(EventLinks.event(newEvent.getId(), "update-event"));
 
-        eventResource.add(Link.of("/docs/index.html#resources-events-create").withRel("profile"));
+                model.add(Link.of("/docs/index.html#resources-events-create").withRel("profile"));
+                return model;
+            });
 
-        return ResponseEntity.created(createdUri).body(eventResource);
+            return ResponseEntity.created(createdUri).body(eventResource);
+        });
     }
 
-    @GetMapping
-    public ResponseEntity queryEvents(Pageable pageable,
-                                      PagedResourcesAssembler<Event> assembler,
-                                      @CurrentUser Account account){
-        Page<Event> page = this.eventRepository.findAll(pageable);
-        var pageResource = assembler.toModel(page, EventResource::modelof);
+    // 일괄 생성: 항목마다 검증해서 통과한 것만 한 트랜잭션에서 JDBC batch insert로 저장하고, 실패한 항목은 index와 함께 돌려준다
+    @PostMapping("/batch")
+    public Object createEvents(@RequestBody List<EventDto> eventDtos,
+                               @CurrentUser Account currentUser) throws Exception {
+        return this.eventRequestExecutor.execute("batch", () -> {
+            if(eventDtos.size() > MAX_BATCH_SIZE){
+                Errors errors = new MapBindingResult(Map.of(), "eventDtos");
+                errors.reject("tooManyEvents", "At most " + MAX_BATCH_SIZE + " events can be created at once");
+                return badRequest(errors);
+            }
 
-        pageResource.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+            EventBatchResource batchResource = new EventBatchResource();
+            List<Event> events = new ArrayList<>(eventDtos.size());
+            for(int i = 0; i < eventDtos.size(); i++){
+                EventDto eventDto = eventDtos.get(i);
+                Errors errors = validate(eventDto);
+                if(errors.hasErrors()){
+                    batchResource.getRejected().add(new EventBatchResource.RejectedEvent(i, errors));
+                    continue;
+                }
 
-        if(account != null){
-            pageResource.add(linkTo(EventController.class).withRel("create-event"));
-        }
-        return ResponseEntity.ok(pageResource);
+                Event event = eventMapper.toEvent(eventDto);
+                event.update();
+                event.setManager(currentUser);
+                events.add(event);
+            }
+
+            this.eventRepository.saveAll(events).forEach(event -> batchResource.getCreated().add(EventResource.modelof(event)));
+
+            batchResource.add(Link.of(EventLinks.events() + "/batch"));
+            batchResource.add(EventLinks.events("query-events"));
+            batchResource.add(Link.of("/docs/index.html#resources-events-batch").withRel("profile"));
+            return ResponseEntity.ok(batchResource);
+        });
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity getEvents(@PathVariable Integer id,
-                                    @CurrentUser Account currentUser){
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
-        if(optionalEvent.isEmpty()){
-            return ResponseEntity.notFound().build();
+    private Errors validate(EventDto eventDto) {
+        if(eventDto == null){
+            Errors errors = new MapBindingResult(Map.of(), "eventDto");
+            errors.reject("emptyEvent", "event is empty");
+            return errors;
         }
 
-        Event event = optionalEvent.get();
-        EntityModel<Event> eventResource = EventResource.modelof(event);
-        eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
-        if(event.getManager().equals(currentUser)){
-            eventResource.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        this.beanValidator.validate(eventDto, errors);
+        if(!errors.hasErrors()){
+            this.eventValidator.validate(eventDto, errors);
         }
-        return ResponseEntity.ok(eventResource);
+        return errors;
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity updateEvent(@PathVariable Integer id,
-                                     @RequestBody @Valid EventDto eventDto,
-                                     Errors errors,
-                                      @CurrentUser Account currentUser){
-
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
-        if(optionalEvent.isEmpty()){
-            return ResponseEntity.notFound().build();
+    @GetMapping
+    public Object queryEvents(Pageable pageable,
+                              EventSearch eventSearch,
+                              PagedResourcesAssembler<Event> assembler,
+                              @CurrentUser Account account,
+                              WebRequest webRequest) throws Exception {
+        return this.eventRequestExecutor.execute("query", () -> {
+            Page<Event> page = this.eventMetrics.time(EventMetrics.REPOSITORY,
+                    () -> this.eventWriteBuffer.latest(this.eventRepository.findAll(eventSearch.toSpecification(), pageable)));
+            String eTag = EventETags.ofPage(page.getNumber() + "/" + page.getSize() + "/" + page.getTotalElements() + "/" + page.getSort(),
+                    page.getContent(), account != null);
+            if(EventETags.isNotModified(webRequest, eTag, -1)){
+                return EventETags.notModified(eTag, -1); // 304, HAL 모델 생성과 직렬화를 건너뛴다
+            }
+
+            var pageResource = this.eventMetrics.time(EventMetrics.MAPPING, () -> assembler.toModel(page, EventResource::modelof));
+
+            pageResource.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+
+            if(account != null){
+                pageResource.add(EventLinks.events("create-event"));
+            }
+            return EventETags.validators(ResponseEntity.ok(), eTag, -1).body(pageResource);
+        });
+    }
+
+    // keyset(커서) 페이징: count 쿼리를 생략하고 next/prev 링크에 커서를 담는다. after 값이 비어있으면 첫 페이지
+    @GetMapping(params = "after")
+    public Object queryEventsAfter(@RequestParam String after,
+                                   @RequestParam(defaultValue = "20") int size,
+                                   @CurrentUser Account account,
+                                   WebRequest webRequest) throws Exception {
+        return this.eventRequestExecutor.execute("keyset", () -> {
+            return queryEventsByKeyset(after, false, size, account, webRequest);
+        });
+    }
+
+    @GetMapping(params = "before")
+    public Object queryEventsBefore(@RequestParam String before,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @CurrentUser Account account,
+                                    WebRequest webRequest) throws Exception {
+        return this.eventRequestExecutor.execute("keyset", () -> {
+            return queryEventsByKeyset(before, true, size, account, webRequest);
+        });
+    }
+
+    private ResponseEntity queryEventsByKeyset(String cursorValue, boolean backward, int size, Account account, WebRequest webRequest) {
+        Optional<EventCursor> cursor = Optional.empty();
+        if(!cursorValue.isEmpty()){
+            cursor = EventCursor.decode(cursorValue);
+            if(cursor.isEmpty()){
+                Errors errors = new MapBindingResult(Map.of(), "eventCursor");
+                errors.reject("wrongCursor", "cursor is wrong");
+                return badRequest(errors);
+            }
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1); // 한 건 더 읽어서 다음 페이지 존재 여부를 판단
+
+        List<Event> events;
+        if(cursor.isEmpty()){
+            events = this.eventRepository.findKeysetFirst(limit);
+        }else if(backward){
+            events = this.eventRepository.findKeysetBefore(cursor.get().getBeginEventDateTime(), cursor.get().getId(), limit);
+        }else{
+            events = this.eventRepository.findKeysetAfter(cursor.get().getBeginEventDateTime(), cursor.get().getId(), limit);
+        }
+        events = this.eventWriteBuffer.latest(events);
+
+        boolean hasMore = events.size() > pageSize;
+        if(hasMore){
+            events = events.subList(0, pageSize);
+        }
+        if(backward){
+            events = new ArrayList<>(events);
+            Collections.reverse(events);
         }
 
-        if(errors.hasErrors()){
-            return badRequest(errors);
+        boolean hasNext = backward ? !events.isEmpty() : hasMore;
+        boolean hasPrev = backward ? hasMore : cursor.isPresent() && !events.isEmpty();
+
+        String eTag = EventETags.ofPage(cursorValue + "/" + backward + "/" + pageSize + "/" + hasNext + "/" + hasPrev, events, account != null);
+        if(EventETags.isNotModified(webRequest, eTag, -1)){
+            return EventETags.notModified(eTag, -1);
         }
 
-        this.eventValidator.validate(eventDto, errors);
-        if(errors.hasErrors()){
-            return badRequest(errors);
+        var pageResource = CollectionModel.of(events.stream().map(EventResource::modelof).collect(Collectors.toList()));
+        pageResource.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if(hasNext){
+            pageResource.add(keysetLink("after", EventCursor.of(events.get(events.size() - 1)).encode(), pageSize).withRel(IanaLinkRelations.NEXT));
+        }
+        if(hasPrev){
+            pageResource.add(keysetLink("before", EventCursor.of(events.get(0)).encode(), pageSize).withRel(IanaLinkRelations.PREV));
         }
+        pageResource.add(Link.of("/docs/index.html#resources-events-keyset").withRel("profile"));
 
-        Event existingEvent = optionalEvent.get();
-        if(!existingEvent.getManager().equals(currentUser)){
-            return new ResponseEntity(HttpStatus.UNAUTHORIZED); //인가되지 않았다.
+        if(account != null){
+            pageResource.add(EventLinks.events("create-event"));
         }
+        return EventETags.validators(ResponseEntity.ok(), eTag, -1).body(pageResource);
+    }
+
+    private Link keysetLink(String direction, String cursor, int size) {
+        return Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after")
+                .replaceQueryParam("before")
+                .replaceQueryParam(direction, cursor)
+                .replaceQueryParam("size", size)
+                .toUriString());
+    }
+
+    // 이름/설명 검색: 관련도(rank) 순으로 정렬하고 (rank, id) 커서로 다음 페이지를 읽는다
+    @GetMapping("/search")
+    public Object searchEvents(@RequestParam String q,
+                               @RequestParam(defaultValue = "") String after,
+                               @RequestParam(defaultValue = "20") int size,
+                               @CurrentUser Account account) throws Exception {
+        return this.eventRequestExecutor.execute("search", () -> {
+            if(EventTextSearch.terms(q).isEmpty()){
+                Errors errors = new MapBindingResult(Map.of(), "eventSearch");
+                errors.reject("wrongQuery", "query is empty");
+                return badRequest(errors);
+            }
+
+            Optional<EventRank> cursor = Optional.empty();
+            if(!after.isEmpty()){
+                cursor = EventRank.decode(after);
+                if(cursor.isEmpty()){
+                    Errors errors = new MapBindingResult(Map.of(), "eventCursor");
+                    errors.reject("wrongCursor", "cursor is wrong");
+                    return badRequest(errors);
+                }
+            }
+
+            int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+            List<EventRank> ranks = this.eventTextSearch.search(q, cursor.orElse(null), pageSize + 1);
+            boolean hasNext = ranks.size() > pageSize;
+            if(hasNext){
+                ranks = ranks.subList(0, pageSize);
+            }
+
+            // id로 한번에 읽은 뒤 검색 순서대로 다시 정렬
+            Map<Integer, Event> eventsById = this.eventWriteBuffer.latest(this.eventRepository.findAllById(ranks.stream().map(EventRank::getId).collect(Collectors.toList())))
+                    .stream().collect(Collectors.toMap(Event::getId, event -> event));
+            List<EntityModel<Event>> eventResources = ranks.stream()
+                    .map(rank -> eventsById.get(rank.getId()))
+                    .filter(Objects::nonNull)
+                    .map(EventResource::modelof)
+                    .collect(Collectors.toList());
+
+            var pageResource = CollectionModel.of(eventResources);
+            pageResource.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+            if(hasNext){
+                pageResource.add(keysetLink("after", ranks.get(ranks.size() - 1).encode(), pageSize).withRel(IanaLinkRelations.NEXT));
+            }
+            pageResource.add(Link.of("/docs/index.html#resources-events-search").withRel("profile"));
+
+            if(account != null){
+                pageResource.add(EventLinks.events("create-event"));
+            }
+            return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(pageResource);
+        });
+    }
+
+    // 전체 이벤트 NDJSON 내보내기. since가 있으면 그 이후에 생성/수정된 이벤트만
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since){
+        StreamingResponseBody body = out -> this.eventExporter.export(since, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public Object getEvents(@PathVariable Integer id,
+                            @CurrentUser Account currentUser,
+                            WebRequest webRequest) throws Exception {
+        return this.eventRequestExecutor.execute("get", () -> {
+            Optional<Event> optionalEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventWriteBuffer.findById(id));
+            if(optionalEvent.isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+
+            Event event = optionalEvent.get();
+            boolean managerView = event.isManagedBy(currentUser);
+            String eTag = EventETags.of(event, managerView);
+            long lastModified = EventETags.lastModified(event);
+            if(EventETags.isNotModified(webRequest, eTag, lastModified)){
+                return EventETags.notModified(eTag, lastModified); // 304, 캐시된 이벤트라면 DB와 Jackson 모두 거치지 않는다
+            }
+
+            EntityModel<Event> eventResource = this.eventMetrics.time(EventMetrics.MAPPING, () -> EventResource.modelof(event));
+            eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+            if(managerView){
+                eventResource.add(EventLinks.event(event.getId(), "update-event"));
+            }
+            return EventETags.validators(ResponseEntity.ok(), eTag, lastModified).body(eventResource);
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Object updateEvent(@PathVariable Integer id,
+                             @RequestBody @Valid EventDto eventDto,
+                             Errors errors,
+                              @CurrentUser Account currentUser,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws Exception {
+        return this.eventRequestExecutor.execute("update", () -> {
+
+            Optional<Event> optionalEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventWriteBuffer.findById(id));
+            if(optionalEvent.isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+
+            if(errors.hasErrors()){
+                return badRequest(errors);
+            }
+
+            this.eventMetrics.time(EventMetrics.VALIDATION, () -> this.eventValidator.validate(eventDto, errors));
+            if(errors.hasErrors()){
+                return badRequest(errors);
+            }
+
+            Event existingEvent = optionalEvent.get();
+            if(!existingEvent.isManagedBy(currentUser)){
+                return new ResponseEntity(HttpStatus.UNAUTHORIZED); //인가되지 않았다.
+            }
+
+            long version = existingEvent.getVersion();
+            if(ifMatch != null && !EventETags.matches(ifMatch, existingEvent)){
+                return new ResponseEntity(HttpStatus.PRECONDITION_FAILED); //다른 곳에서 먼저 수정되었다.
+            }
+
+            Event savedEvent;
+            if(this.eventWriteBuffer.accepts(id)){
+                //버퍼에 덮어쓰고 바로 응답한다. 저장은 EventWriteBuffer.flush 에서 모아서 한다.
+                Optional<Event> bufferedEvent = this.eventMetrics.time(EventMetrics.MAPPING,
+                        () -> this.eventWriteBuffer.update(existingEvent, version, event -> this.eventMapper.map(eventDto, event)));
+                if(bufferedEvent.isEmpty()){
+                    return new ResponseEntity(HttpStatus.PRECONDITION_FAILED); //그 사이 다른 요청이 먼저 수정했다.
+                }
+                savedEvent = bufferedEvent.get();
+            }else{
+                this.eventMetrics.time(EventMetrics.MAPPING, () -> this.eventMapper.map(eventDto, existingEvent)); //eventDto 에있는 것을 existingEvent 로 덥어쓰기^^
+                try {
+                    savedEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventRepository.save(existingEvent)); //version 이 다르면 덮어쓰지 않고 실패한다.
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    this.eventRepository.evictFromCache(id);
+                    return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+                }
+            }
+            this.eventStatusScheduler.schedule(savedEvent); //시각이 바뀌었으면 다음 상태 전환을 앞당긴다
+
+            EntityModel<Event> eventResource = this.eventMetrics.time(EventMetrics.MAPPING, () -> EventResource.modelof(savedEvent));
+            eventResource.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
+
+            return ResponseEntity.ok().eTag(EventETags.of(savedEvent, true)).body(eventResource);
+        });
+    }
+
+    // JSON Merge Patch (RFC 7396): 보낸 필드만 바꾸고 null은 값을 지운다. 바뀐 필드의 검증과 그 필드가 들어있는 EventValidator 규칙만 검사한다.
+    // Event는 @DynamicUpdate 라서 UPDATE 문에는 실제로 바뀐 컬럼만 들어간다. (write-behind 모드에서는 EventWriteBuffer가 같은 방식으로 쓴다)
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    public Object patchEvent(@PathVariable Integer id,
+                             @RequestBody JsonNode patch,
+                             @CurrentUser Account currentUser,
+                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws Exception {
+        return this.eventRequestExecutor.execute("patch", () -> {
+
+            Optional<Event> optionalEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventWriteBuffer.findById(id));
+            if(optionalEvent.isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+
+            Event existingEvent = optionalEvent.get();
+            EventDto eventDto = this.eventMapper.toDto(existingEvent);
+            Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+            if(!patch.isObject()){
+                errors.reject("wrongPatch", "patch must be a JSON object");
+                return badRequest(errors);
+            }
+            try {
+                this.objectMapper.readerForUpdating(eventDto).readValue(patch); //없는 필드나 형식이 다른 값은 실패한다.
+            } catch (JsonProcessingException e) {
+                errors.reject("wrongPatch", e.getOriginalMessage());
+                return badRequest(errors);
+            }
+
+            Set<String> changedFields = new HashSet<>();
+            patch.fieldNames().forEachRemaining(changedFields::add);
+            this.eventMetrics.time(EventMetrics.VALIDATION, () -> {
+                for(String field : changedFields){
+                    for(ConstraintViolation<EventDto> violation : this.beanValidator.validateProperty(eventDto, field)){
+                        errors.rejectValue(field, violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName(),
+                                violation.getMessage());
+                    }
+                }
+                if(!errors.hasErrors()){
+                    this.eventValidator.validate(eventDto, changedFields, errors);
+                }
+            });
+            if(errors.hasErrors()){
+                return badRequest(errors);
+            }
+
+            if(!existingEvent.isManagedBy(currentUser)){
+                return new ResponseEntity(HttpStatus.UNAUTHORIZED);
+            }
+
+            long version = existingEvent.getVersion();
+            if(ifMatch != null && !EventETags.matches(ifMatch, existingEvent)){
+                return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+            }
 
-        this.modelMapper.map(eventDto, existingEvent); //eventDto 에있는 것을 existingEvent 로 덥어쓰기^^
-        Event savedEvent = this.eventRepository.save(existingEvent);
+            Event savedEvent;
+            if(this.eventWriteBuffer.accepts(id)){
+                Optional<Event> bufferedEvent = this.eventMetrics.time(EventMetrics.MAPPING,
+                        () -> this.eventWriteBuffer.update(existingEvent, version, event -> {
+                            this.eventMapper.map(eventDto, event);
+                            event.update();
+                        }));
+                if(bufferedEvent.isEmpty()){
+                    return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+                }
+                savedEvent = bufferedEvent.get();
+            }else{
+                this.eventMetrics.time(EventMetrics.MAPPING, () -> {
+                    this.eventMapper.map(eventDto, existingEvent); //보내지 않은 필드는 원래 값 그대로라서 dirty checking에 걸리지 않는다
+                    existingEvent.update(); //free, offline 다시 계산
+                });
+                try {
+                    savedEvent = this.eventMetrics.time(EventMetrics.REPOSITORY, () -> this.eventRepository.save(existingEvent));
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    this.eventRepository.evictFromCache(id);
+                    return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+                }
+            }
+            this.eventStatusScheduler.schedule(savedEvent);
 
-        EntityModel<Event> eventResource = EventResource.modelof(savedEvent);
-        eventResource.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
+            EntityModel<Event> eventResource = this.eventMetrics.time(EventMetrics.MAPPING, () -> EventResource.modelof(savedEvent));
+            eventResource.add(Link.of("/docs/index.html#resources-events-patch").withRel("profile"));
 
-        return ResponseEntity.ok(eventResource);
+            return ResponseEntity.ok().eTag(EventETags.of(savedEvent, true)).body(eventResource);
+        });
     }
 
     private ResponseEntity badRequest(Errors errors) {
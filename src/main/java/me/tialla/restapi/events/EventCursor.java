@@ -0,0 +1,55 @@
+package me.tialla.restapi.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+// keyset 페이징용 커서: (beginEventDateTime, id)를 클라이언트가 해석하지 않도록 base64로 감싼다.
+public class EventCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime beginEventDateTime;
+    private final Integer id;
+
+    private EventCursor(LocalDateTime beginEventDateTime, Integer id) {
+        this.beginEventDateTime = beginEventDateTime;
+        this.id = id;
+    }
+
+    // beginEventDateTime이 없는 이벤트는 keyset 조회에 나오지 않는다 (EventRepository.findKeysetFirst)
+    public static EventCursor of(Event event) {
+        if (event.getBeginEventDateTime() == null) {
+            throw new IllegalArgumentException("Event " + event.getId() + " has no beginEventDateTime to page by");
+        }
+        return new EventCursor(event.getBeginEventDateTime(), event.getId());
+    }
+
+    public static Optional<EventCursor> decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new EventCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Integer.valueOf(decoded.substring(separator + 1))));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        String raw = this.beginEventDateTime + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getBeginEventDateTime() {
+        return beginEventDateTime;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,80 @@
+package me.tialla.restapi.events;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.List;
+
+// Event.version 기반 ETag. 매니저에게는 update-event 링크가 더 붙으므로 표현을 구분한다.
+public class EventETags {
+
+    private static final String MANAGER_VIEW = "-m";
+
+    public static String of(Event event, boolean managerView) {
+        return "\"" + event.getVersion() + (managerView ? MANAGER_VIEW : "") + "\"";
+    }
+
+    // 목록은 페이지 정보와 각 이벤트의 (id, version)으로 약한 ETag를 만든다.
+    public static String ofPage(String pageKey, List<Event> events, boolean authenticated) {
+        StringBuilder source = new StringBuilder(pageKey).append(authenticated ? MANAGER_VIEW : "");
+        for (Event event : events) {
+            source.append(',').append(event.getId()).append('.').append(event.getVersion());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static long lastModified(Event event) {
+        if (event.getLastModifiedDateTime() == null) {
+            return -1;
+        }
+        return event.getLastModifiedDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // If-Match는 강한 비교만 허용한다. 약한 ETag는 일치하지 않는 것으로 본다.
+    public static boolean matches(String ifMatch, Event event) {
+        for (String candidate : ifMatch.split(",")) {
+            String eTag = candidate.trim();
+            if (eTag.equals("*")) {
+                return true;
+            }
+            if (eTag.startsWith("W/") || eTag.length() < 2) {
+                continue;
+            }
+            String value = eTag.substring(1, eTag.length() - 1);
+            if (value.endsWith(MANAGER_VIEW)) {
+                value = value.substring(0, value.length() - MANAGER_VIEW.length());
+            }
+            if (value.equals(String.valueOf(event.getVersion()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 조회 핸들러는 요청 스레드가 아닌 곳(event-request-*, Reactor)에서 돌 수 있고 결과는 재디스패치에서 쓰므로, checkNotModified로 응답을 직접 건드리지 않는다.
+    // 요청의 If-None-Match/If-Modified-Since만 비교하고, 304와 200 모두 ResponseEntity에 ETag/Last-Modified를 싣는다 (EventController, ReactiveEventController)
+    static boolean isNotModified(WebRequest webRequest, String eTag, long lastModified) {
+        HttpServletRequest request = ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class);
+        return new ServletWebRequest(request).checkNotModified(eTag, lastModified);
+    }
+
+    static ResponseEntity notModified(String eTag, long lastModified) {
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag, lastModified).build();
+    }
+
+    static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, String eTag, long lastModified) {
+        builder.eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION);
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,51 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// 전체 이벤트를 NDJSON(한 줄에 이벤트 하나)으로 내보낸다.
+// 커서로 한 건씩 읽어 바로 쓰고 detach 하므로 이벤트 수와 상관없이 메모리 사용량이 일정하다.
+@Component
+public class EventExporter {
+
+    private final EventRepository eventRepository;
+
+    private final ObjectWriter eventWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventExporter(EventRepository eventRepository, ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        // 건마다 flush 하지 않고 generator 버퍼가 찰 때만 내보낸다
+        this.eventWriter = objectMapper.writerFor(Event.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime since, OutputStream out) throws IOException {
+        try (Stream<Event> events = since == null ? this.eventRepository.streamAll() : this.eventRepository.streamModifiedSince(since);
+             JsonGenerator generator = this.eventWriter.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                Event event = iterator.next();
+                this.eventWriter.writeValue(generator, event);
+                generator.writeRaw('\n');
+                this.entityManager.detach(event);
+            }
+        }
+    }
+}
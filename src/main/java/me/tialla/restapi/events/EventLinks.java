@@ -0,0 +1,84 @@
+package me.tialla.restapi.events;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+// /api/events 링크 생성기. linkTo(EventController.class)는 요청과 애너테이션을 매번 다시 읽으므로
+// 요청의 scheme/host/port/context path/forwarded 헤더가 같으면 한번 계산한 base URI에 id만 붙인다.
+public class EventLinks {
+
+    // 링크의 scheme/host/prefix를 바꾸는 헤더. EventResponseCache의 키에도 들어간다
+    static final String[] FORWARDED_HEADERS = {
+            "Forwarded", "X-Forwarded-Host", "X-Forwarded-Port", "X-Forwarded-Proto", "X-Forwarded-Prefix", "X-Forwarded-Ssl"
+    };
+
+    // Host 헤더를 마음대로 바꿔 보내는 요청에 캐시가 커지지 않도록 개수를 제한한다
+    private static final int MAX_CACHED_ORIGINS = 64;
+
+    private static final Map<String, String> BASE_URIS = new ConcurrentHashMap<>();
+
+    public static String events() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return linkTo(EventController.class).toUri().toString();
+        }
+
+        String key = originKey(((ServletRequestAttributes) attributes).getRequest());
+        String baseUri = BASE_URIS.get(key);
+        if (baseUri == null) {
+            baseUri = linkTo(EventController.class).toUri().toString();
+            if (BASE_URIS.size() < MAX_CACHED_ORIGINS) {
+                BASE_URIS.putIfAbsent(key, baseUri);
+            }
+        }
+        return baseUri;
+    }
+
+    public static String event(Integer id) {
+        return events() + "/" + id;
+    }
+
+    public static Link events(String rel) {
+        return Link.of(events(), rel);
+    }
+
+    public static Link events(LinkRelation rel) {
+        return Link.of(events(), rel);
+    }
+
+    public static Link event(Integer id, String rel) {
+        return Link.of(event(id), rel);
+    }
+
+    public static Link event(Integer id, LinkRelation rel) {
+        return Link.of(event(id), rel);
+    }
+
+    private static String originKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder()
+                .append(request.getScheme()).append('|')
+                .append(request.getServerName()).append('|')
+                .append(request.getServerPort()).append('|')
+                .append(request.getContextPath()).append('|');
+        if (request.getPathInfo() != null) {
+            key.append(request.getServletPath());
+        }
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            key.append('|');
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 이벤트 API 요청 지표 (/actuator/prometheus)
+// event.request.phase{endpoint, phase}: 요청 하나가 단계별로 쓴 시간
+//   validation(@Valid + EventValidator), mapping(EventDto -> Event, HAL 모델 생성), repository, serialization(HAL -> JSON 쓰기)
+// event.request.statements{endpoint}: 요청 하나가 준비한 SQL 문 수. Hibernate StatementInspector로 센다
+@Component
+public class EventMetrics implements StatementInspector {
+
+    public static final String VALIDATION = "validation";
+    public static final String MAPPING = "mapping";
+    public static final String REPOSITORY = "repository";
+    public static final String SERIALIZATION = "serialization";
+
+    static final String ENDPOINT_ATTRIBUTE = EventMetrics.class.getName() + ".endpoint";
+    static final String BODY_READ_ATTRIBUTE = EventMetrics.class.getName() + ".bodyRead";
+    static final String BODY_WRITE_ATTRIBUTE = EventMetrics.class.getName() + ".bodyWrite";
+
+    private static final String[] HANDLER_PHASES = {VALIDATION, MAPPING, REPOSITORY};
+
+    // 핸들러를 실행하는 스레드(Tomcat 또는 event-request-*)에 묶인 현재 요청
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> statements = new ConcurrentHashMap<>();
+
+    public EventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 요청 스레드에서 호출한다. 본문을 읽은 뒤부터 여기까지가 @Valid 검증 시간이다
+    public Trace start(String endpoint) {
+        Trace trace = new Trace(endpoint);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ENDPOINT_ATTRIBUTE, endpoint, RequestAttributes.SCOPE_REQUEST);
+            Object bodyRead = attributes.getAttribute(BODY_READ_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (bodyRead != null) {
+                trace.add(VALIDATION, System.nanoTime() - (Long) bodyRead);
+            }
+        }
+        return trace;
+    }
+
+    public <T> T trace(Trace trace, Callable<T> handler) throws Exception {
+        CURRENT.set(trace);
+        try {
+            return handler.call();
+        } finally {
+            CURRENT.remove();
+            for (int i = 0; i < HANDLER_PHASES.length; i++) {
+                if (trace.recorded[i]) {
+                    timer(trace.endpoint, HANDLER_PHASES[i]).record(trace.nanos[i], TimeUnit.NANOSECONDS);
+                }
+            }
+            statements(trace.endpoint).record(trace.statements);
+        }
+    }
+
+    public <T> T time(String phase, Supplier<T> work) {
+        Trace trace = CURRENT.get();
+        if (trace == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            trace.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void recordSerialization(String endpoint, long nanos) {
+        timer(endpoint, SERIALIZATION).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.statements++;
+        }
+        return sql;
+    }
+
+    private Timer timer(String endpoint, String phase) {
+        return this.timers.computeIfAbsent(endpoint + '.' + phase, key -> Timer.builder("event.request.phase")
+                .description("Time spent in each phase of an event API request")
+                .tag("endpoint", endpoint)
+                .tag("phase", phase)
+                .register(this.meterRegistry));
+    }
+
+    private DistributionSummary statements(String endpoint) {
+        return this.statements.computeIfAbsent(endpoint, key -> DistributionSummary.builder("event.request.statements")
+                .description("SQL statements prepared by one event API request")
+                .baseUnit("statements")
+                .tag("endpoint", endpoint)
+                .register(this.meterRegistry));
+    }
+
+    // 한 요청 안에서 같은 단계를 여러 번 지나면(조회 후 저장 등) 합쳐서 한 번만 기록한다
+    public static class Trace {
+
+        private final String endpoint;
+
+        private final long[] nanos = new long[HANDLER_PHASES.length];
+
+        private final boolean[] recorded = new boolean[HANDLER_PHASES.length];
+
+        private int statements;
+
+        private Trace(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void add(String phase, long elapsed) {
+            for (int i = 0; i < HANDLER_PHASES.length; i++) {
+                if (HANDLER_PHASES[i].equals(phase)) {
+                    this.nanos[i] += elapsed;
+                    this.recorded[i] = true;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.tialla.restapi.events;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// 응답을 다 쓴 뒤 serialization 단계를 기록한다. ASYNC 모드에서는 async dispatch에서 호출된다
+public class EventMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final EventMetrics eventMetrics;
+
+    public EventMetricsInterceptor(EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object endpoint = request.getAttribute(EventMetrics.ENDPOINT_ATTRIBUTE);
+        Object bodyWrite = request.getAttribute(EventMetrics.BODY_WRITE_ATTRIBUTE);
+        if (endpoint != null && bodyWrite != null) {
+            this.eventMetrics.recordSerialization((String) endpoint, System.nanoTime() - (Long) bodyWrite);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package me.tialla.restapi.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+// 검색 결과 한 건의 (rank, id). 다음 페이지 커서로도 쓰며 EventCursor와 같은 방식으로 base64로 감싼다.
+public class EventRank {
+
+    private static final String SEPARATOR = "|";
+
+    private final float rank;
+    private final Integer id;
+
+    public EventRank(float rank, Integer id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public static Optional<EventRank> decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new EventRank(Float.parseFloat(decoded.substring(0, separator)),
+                    Integer.valueOf(decoded.substring(separator + 1))));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Float.toString은 같은 float로 되돌아오는 가장 짧은 표현이라 DB의 real 값과 그대로 비교할 수 있다
+    public String encode() {
+        String raw = Float.toString(this.rank) + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,99 @@
+package me.tialla.restapi.events;
+
+import lombok.*;
+import me.tialla.restapi.accounts.Account;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// reactive 프로필에서 R2DBC로 읽고 쓰는 event 테이블의 한 행. 연관관계 매핑이 없으므로 manager는 FK(manager_id)로만 가진다.
+// 응답은 Event로 바꿔서 만들기 때문에 JPA 쪽과 같은 HAL 본문이 나온다.
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Table("event")
+public class EventRecord {
+
+    @Id
+    private Integer id;
+
+    private String name;
+    private String description;
+    private LocalDateTime beginEnrollmentDateTime;
+    private LocalDateTime closeEnrollmentDateTime;
+    private LocalDateTime beginEventDateTime;
+    private LocalDateTime endEventDateTime;
+    private String location;
+    private int basePrice;
+    private int maxPrice;
+    private int limitOfEnrollment;
+
+    private boolean offline;
+    private boolean free;
+    private EventStatus eventStatus;
+
+    @Version
+    private Long version;
+
+    private LocalDateTime lastModifiedDateTime;
+
+    private String searchText;
+
+    private Integer managerId;
+
+    // Event.enrolledCount 와 같은 이유로 쓰지 않고 읽기만 한다
+    @ReadOnlyProperty
+    private int enrolledCount;
+
+    // JPA의 @PreUpdate/@UpdateTimestamp가 하던 일을 직접 한다
+    public static EventRecord of(Event event) {
+        event.updateSearchText();
+        return EventRecord.builder()
+                .id(event.getId())
+                .name(event.getName())
+                .description(event.getDescription())
+                .beginEnrollmentDateTime(event.getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(event.getCloseEnrollmentDateTime())
+                .beginEventDateTime(event.getBeginEventDateTime())
+                .endEventDateTime(event.getEndEventDateTime())
+                .location(event.getLocation())
+                .basePrice(event.getBasePrice())
+                .maxPrice(event.getMaxPrice())
+                .limitOfEnrollment(event.getLimitOfEnrollment())
+                .offline(event.isOffline())
+                .free(event.isFree())
+                .eventStatus(event.getEventStatus())
+                .version(event.getVersion())
+                .lastModifiedDateTime(LocalDateTime.now())
+                .searchText(event.getSearchText())
+                .managerId(event.getManager() == null ? null : event.getManager().getId())
+                .enrolledCount(event.getEnrolledCount())
+                .build();
+    }
+
+    public Event toEvent() {
+        return Event.builder()
+                .id(this.id)
+                .name(this.name)
+                .description(this.description)
+                .beginEnrollmentDateTime(this.beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(this.closeEnrollmentDateTime)
+                .beginEventDateTime(this.beginEventDateTime)
+                .endEventDateTime(this.endEventDateTime)
+                .location(this.location)
+                .basePrice(this.basePrice)
+                .maxPrice(this.maxPrice)
+                .limitOfEnrollment(this.limitOfEnrollment)
+                .offline(this.offline)
+                .free(this.free)
+                .eventStatus(this.eventStatus)
+                .version(this.version)
+                .lastModifiedDateTime(this.lastModifiedDateTime)
+                .searchText(this.searchText)
+                .manager(this.managerId == null ? null : Account.builder().id(this.managerId).build())
+                .enrolledCount(this.enrolledCount)
+                .build();
+    }
+}
@@ -1,6 +1,82 @@
 package me.tialla.restapi.events;
 
+import me.tialla.restapi.configs.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event> {
+
+    // 단건 조회는 캐시에서 읽고, 저장/삭제시 캐시를 갱신한다. 캐시는 복사본을 주고 받으며 커밋된 저장만 반영한다 (CacheConfig)
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EVENTS, unless = "#result == null")
+    Optional<Event> findById(Integer id);
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.EVENTS, key = "#result.id")
+    <S extends Event> S save(S event);
+
+    // 저장이 version 충돌로 실패해 캐시된 값이 DB보다 오래되었을 때 사용
+    @CacheEvict(cacheNames = CacheConfig.EVENTS)
+    default void evictFromCache(Integer id) {
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EVENTS)
+    void deleteById(Integer id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EVENTS, key = "#p0.id")
+    void delete(Event event);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EVENTS, allEntries = true)
+    void deleteAll();
+
+    // 신청 인원을 하나 늘린다. 신청 중이고 자리가 남았을 때만 바뀌므로(1), 아니면 0을 돌려준다.
+    // 검사와 증가가 UPDATE 문 하나라서 행을 먼저 읽고 잠글(select for update) 필요가 없고 인원을 넘길 수 없다.
+    @Modifying
+    @Query("update Event e set e.enrolledCount = e.enrolledCount + 1 " +
+            "where e.id = :id and e.eventStatus = :status and e.enrolledCount < e.limitOfEnrollment")
+    int incrementEnrolledCount(@Param("id") Integer id, @Param("status") EventStatus status);
+
+    // keyset 페이징: count 쿼리 없이 (beginEventDateTime, id) 인덱스를 타고 size 만큼만 읽는다.
+    // beginEventDateTime이 없는 이벤트는 커서를 만들 수 없고 DB마다 정렬 위치도 달라 제외한다. (after/before는 비교식에서 빠진다)
+    @Query("select e from Event e where e.beginEventDateTime is not null order by e.beginEventDateTime asc, e.id asc")
+    List<Event> findKeysetFirst(Pageable pageable);
+
+    @Query("select e from Event e " +
+            "where e.beginEventDateTime >= :begin and (e.beginEventDateTime > :begin or e.id > :id) " +
+            "order by e.beginEventDateTime asc, e.id asc")
+    List<Event> findKeysetAfter(@Param("begin") LocalDateTime begin, @Param("id") Integer id, Pageable pageable);
+
+    @Query("select e from Event e " +
+            "where e.beginEventDateTime <= :begin and (e.beginEventDateTime < :begin or e.id < :id) " +
+            "order by e.beginEventDateTime desc, e.id desc")
+    List<Event> findKeysetBefore(@Param("begin") LocalDateTime begin, @Param("id") Integer id, Pageable pageable);
+
+    // 내보내기용 forward-only 커서. 트랜잭션 안에서 사용하고 다 쓰면 닫아야 한다.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select e from Event e order by e.id")
+    Stream<Event> streamAll();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select e from Event e where e.lastModifiedDateTime >= :since order by e.id")
+    Stream<Event> streamModifiedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,139 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.RequestStatements;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 이벤트 API 실행 방식.
+// BLOCKING: 지금처럼 Tomcat 스레드에서 바로 실행
+// ASYNC: 전용 스레드 풀에서 실행(WebAsyncTask)하고 Tomcat 스레드는 바로 돌려준다. DB가 느려져도 /api 등 다른 요청은 영향을 받지 않는다.
+// ASYNC 모드에서만 endpoint별 동시 실행 수를 제한하고, 넘치면 기다리지 않고 503을 준다. BLOCKING 모드는 Tomcat 스레드 수가 그대로 한도다.
+@Component
+public class EventRequestExecutor implements DisposableBean {
+
+    public enum Mode {
+        BLOCKING, ASYNC
+    }
+
+    private final Mode mode;
+
+    private final long timeoutMillis;
+
+    private final int defaultConcurrency;
+
+    private final Map<String, Integer> endpointConcurrency;
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final EventMetrics eventMetrics;
+
+    public EventRequestExecutor(AppProperties appProperties, MeterRegistry meterRegistry, EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+        this.mode = appProperties.getEventExecutionMode();
+        this.timeoutMillis = appProperties.getEventRequestTimeout().toMillis();
+        this.defaultConcurrency = appProperties.getEventDefaultConcurrency();
+        this.endpointConcurrency = appProperties.getEventEndpointConcurrency();
+
+        if (this.mode == Mode.ASYNC) {
+            // permit은 작업이 실제로 끝나야 돌아오므로 실행 중 + 대기 중인 작업은 endpoint별 permit 합계를 넘지 않는다.
+            // 합계가 스레드 수 + 큐 크기보다 크면 넘친 요청은 거절되고 EventRequestExecutorAdvice가 503으로 응답한다
+            this.executor = new ThreadPoolTaskExecutor();
+            this.executor.setCorePoolSize(appProperties.getEventExecutorThreads());
+            this.executor.setMaxPoolSize(appProperties.getEventExecutorThreads());
+            this.executor.setQueueCapacity(appProperties.getEventExecutorQueueSize());
+            this.executor.setThreadNamePrefix("event-request-");
+            this.executor.initialize();
+            new ExecutorServiceMetrics(this.executor.getThreadPoolExecutor(), "eventRequests", Collections.emptyList())
+                    .bindTo(meterRegistry);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    // ASYNC 모드에서는 WebAsyncTask를, BLOCKING 모드에서는 handler의 결과를 그대로 반환한다
+    public Object execute(String endpoint, Callable<ResponseEntity> handler) throws Exception {
+        EventMetrics.Trace trace = this.eventMetrics.start(endpoint);
+        if (this.mode == Mode.BLOCKING) {
+            return this.eventMetrics.trace(trace, handler);
+        }
+
+        Semaphore semaphore = this.permits.computeIfAbsent(endpoint,
+                name -> new Semaphore(this.endpointConcurrency.getOrDefault(name, this.defaultConcurrency)));
+        if (!semaphore.tryAcquire()) {
+            return busy();
+        }
+
+        // 시간 초과로 먼저 응답해도 permit은 작업이 끝날 때(DB 작업이 실제로 끝날 때) 반납해야 느린 DB에 쌓이는 작업 수가 제한된다.
+        // 작업이 시작되기 전에 요청이 끝났으면(대기 중 시간 초과, 큐가 가득 차 거절) 작업은 실행하지 않고 요청 쪽에서 반납한다
+        AtomicBoolean started = new AtomicBoolean();
+        // 핸들러가 실행한 SQL도 요청의 기록(StatementRecorderFilter)에 남도록 넘겨준다
+        RequestStatements statements = RequestStatements.current();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        WebAsyncTask<ResponseEntity> task = new WebAsyncTask<>(this.timeoutMillis, this.executor, () -> {
+            if (!started.compareAndSet(false, true)) {
+                return busy();
+            }
+            try {
+                return callWith(attributes, () -> RequestStatements.callWith(statements, () -> this.eventMetrics.trace(trace, handler)));
+            } finally {
+                semaphore.release();
+            }
+        });
+        task.onTimeout(EventRequestExecutor::busy);
+        task.onCompletion(() -> {
+            if (started.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        });
+        return task;
+    }
+
+    // 링크(EventLinks, ServletUriComponentsBuilder.fromCurrentRequest, PagedResourcesAssembler)는 현재 요청에서 만들어지므로
+    // event-request-* 스레드에도 요청을 묶어준다. 요청 스레드의 속성은 핸들러가 끝나기 전에 완료(requestCompleted)될 수 있어 새로 만든다
+    private static <T> T callWith(RequestAttributes attributes, Callable<T> work) throws Exception {
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return work.call();
+        }
+        ServletRequestAttributes servletAttributes = (ServletRequestAttributes) attributes;
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        ServletRequestAttributes current = new ServletRequestAttributes(servletAttributes.getRequest(), servletAttributes.getResponse());
+        RequestContextHolder.setRequestAttributes(current);
+        try {
+            return work.call();
+        } finally {
+            current.requestCompleted();
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+
+    static ResponseEntity busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    @Override
+    public void destroy() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package me.tialla.restapi.events;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// ASYNC 모드에서 event-request-* 큐가 가득 차 작업을 넣지 못하면 WebAsyncManager가 예외를 결과로 재디스패치한다.
+// permit이 모자랄 때와 같이 기다리지 않고 503으로 응답한다.
+@ControllerAdvice(assignableTypes = {EventController.class, EnrollmentController.class})
+public class EventRequestExecutorAdvice {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity rejected() {
+        return EventRequestExecutor.busy();
+    }
+}
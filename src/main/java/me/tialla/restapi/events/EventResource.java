@@ -2,16 +2,20 @@ package me.tialla.restapi.events;
 
 import me.tialla.restapi.index.IndexController;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 public class EventResource extends EntityModel<Event> {
 
     public static EntityModel<Event> modelof(Event event){
+        return modelof(event, EventLinks.events());
+    }
+
+    // 요청 스레드 밖(R2DBC 콜백)에서는 요청에서 미리 계산해 둔 /api/events URI를 넘겨받는다
+    public static EntityModel<Event> modelof(Event event, String eventsUri){
 
         EntityModel<Event> eventEntityModel = EntityModel.of(event);
-        eventEntityModel.add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+        eventEntityModel.add(Link.of(eventsUri + "/" + event.getId(), IanaLinkRelations.SELF));
         return eventEntityModel;
 
     }
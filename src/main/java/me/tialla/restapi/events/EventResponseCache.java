@@ -0,0 +1,331 @@
+package me.tialla.restapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.tialla.restapi.common.AppProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// 익명 이벤트 조회(GET /api/events/**) 응답을 직렬화된 바이트로 저장해 두고, 보안 필터/JPA/Jackson 을 거치지 않고 돌려준다.
+// 키는 Host + URI(쿼리 포함) + Accept + forwarded 헤더(링크가 달라진다, EventLinks). Authorization 헤더, access_token 파라미터, 쿠키가 있는 요청은 읽지도 저장하지도 않으므로
+// 인증한 사용자에게만 붙는 create-event/update-event 링크가 다른 사용자에게 나가지 않는다.
+// 저장한 지 my-app.event-response-cache-ttl 이 지나면 stale. stale-while-revalidate 동안은 한 요청만 다시 만들고 나머지는 stale 응답을 받는다.
+// 다시 만드는 요청은 조건부 헤더(If-None-Match, If-Modified-Since)를 떼고 실행해 항상 저장할 수 있는 200을 받고, 304 여부는 여기서 판단한다.
+// 이 노드에서 이벤트를 바꾸는 요청(GET 이외의 /api/events/** 2xx), 상태 전환, 쓰기 버퍼가 버린 수정이 있으면 모두 비운다. 다른 노드의 수정은 ttl 만큼 늦게 보인다.
+// 참가 신청(/api/events/{id}/enrollments)은 응답에 나가지 않는 enrolledCount만 올리고 version도 그대로라 비우지 않는다.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // StatementRecorderFilter 다음, 보안 필터 앞
+public class EventResponseCache extends OncePerRequestFilter {
+
+    private static final String PATH = "/api/events";
+
+    private static final String GENERATION_ATTRIBUTE = EventResponseCache.class.getName() + ".generation";
+
+    private static final Pattern ENROLLMENTS = Pattern.compile(PATH + "/[^/]+/enrollments(/.*)?");
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private static final Set<String> SKIPPED_HEADERS = Set.of(HttpHeaders.CONTENT_TYPE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.SET_COOKIE.toLowerCase());
+
+    private final boolean enabled;
+
+    private final long ttlNanos;
+
+    private final long maxEntryBytes;
+
+    private final Cache<String, Entry> entries;
+
+    // 비울 때마다 올린다. 요청을 시작할 때와 값이 다르면 그 응답은 저장하지 않는다
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Counter> results;
+
+    public EventResponseCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.enabled = appProperties.isEventResponseCacheEnabled();
+        this.ttlNanos = appProperties.getEventResponseCacheTtl().toNanos();
+        this.maxEntryBytes = appProperties.getEventResponseCacheMaxEntrySize().toBytes();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(appProperties.getEventResponseCacheMaxSize().toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.body.length)
+                .expireAfterWrite(appProperties.getEventResponseCacheTtl().plus(appProperties.getEventResponseCacheStaleWhileRevalidate()))
+                .build();
+
+        Gauge.builder("event.response.cache.size", this.entries, Cache::estimatedSize)
+                .description("Anonymous event responses held in the response cache")
+                .register(meterRegistry);
+        this.results = Map.of(
+                "hit", result(meterRegistry, "hit"),
+                "stale", result(meterRegistry, "stale"),
+                "miss", result(meterRegistry, "miss"));
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("event.response.cache.requests")
+                .description("Anonymous event reads by response cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.entries.invalidateAll();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !this.enabled || !(path.equals(PATH) || path.startsWith(PATH + "/"));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            if (!isAsyncStarted(request) && response.getStatus() < 300 && !ENROLLMENTS.matcher(path(request)).matches()) {
+                invalidateAll();
+            }
+            return;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!isAnonymous(request) || request.getRequestURI().endsWith("/export")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = key(request);
+        ContentCachingResponseWrapper wrapper;
+        if (isAsyncDispatch(request)) {
+            wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (wrapper == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } else {
+            Entry entry = this.entries.getIfPresent(key);
+            if (entry != null && entry.isFresh(this.ttlNanos)) {
+                this.results.get("hit").increment();
+                entry.writeTo(request, response);
+                return;
+            }
+            if (entry != null && !entry.refreshing.compareAndSet(false, true)) {
+                this.results.get("stale").increment(); // 다른 요청이 다시 만드는 중
+                entry.writeTo(request, response);
+                return;
+            }
+            this.results.get("miss").increment();
+            wrapper = new ContentCachingResponseWrapper(response);
+            request.setAttribute(GENERATION_ATTRIBUTE, this.generation.get());
+            request = new UnconditionalRequest(request);
+        }
+
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        if (!isAsyncStarted(request)) {
+            store(key, request, wrapper);
+            String eTag = wrapper.getHeader(HttpHeaders.ETAG);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && eTag != null && Entry.matches(ifNoneMatch(request), eTag)) {
+                wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // 클라이언트가 보낸 If-None-Match (핸들러에는 UnconditionalRequest로 가려져 있다)
+    private static String ifNoneMatch(HttpServletRequest request) {
+        UnconditionalRequest unconditional = WebUtils.getNativeRequest(request, UnconditionalRequest.class);
+        HttpServletRequest client = unconditional != null ? (HttpServletRequest) unconditional.getRequest() : request;
+        return client.getHeader(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    private void store(String key, HttpServletRequest request, ContentCachingResponseWrapper wrapper) {
+        Object generation = request.getAttribute(GENERATION_ATTRIBUTE);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentSize() > this.maxEntryBytes
+                || !Long.valueOf(this.generation.get()).equals(generation)) {
+            release(key);
+            return;
+        }
+
+        List<String[]> headers = new ArrayList<>();
+        for (String name : wrapper.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                for (String value : wrapper.getHeaders(name)) {
+                    headers.add(new String[]{name, value});
+                }
+            }
+        }
+        this.entries.put(key, new Entry(wrapper.getContentType(), headers, wrapper.getContentAsByteArray()));
+    }
+
+    // 다시 만들지 못했으면 다음 요청이 다시 시도한다
+    private void release(String key) {
+        Entry stale = this.entries.getIfPresent(key);
+        if (stale != null) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    // 토큰을 보낼 수 있는 곳(헤더, 파라미터, 쿠키)이 모두 비어 있어야 익명으로 본다
+    private static boolean isAnonymous(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                && request.getParameter("access_token") == null
+                && request.getHeader(HttpHeaders.COOKIE) == null;
+    }
+
+    private static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(String.valueOf(request.getHeader(HttpHeaders.HOST)))
+                .append(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        key.append('|').append(request.getHeader(HttpHeaders.ACCEPT));
+        for (String header : EventLinks.FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            key.append('|');
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    // 저장할 응답을 만드는 요청. 핸들러가 304를 주지 않도록 조건부 헤더를 가린다
+    private static class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        private static final Set<String> CONDITIONAL_HEADERS = Set.of(HttpHeaders.IF_NONE_MATCH.toLowerCase(),
+                HttpHeaders.IF_MODIFIED_SINCE.toLowerCase());
+
+        private UnconditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        private static boolean isConditional(String name) {
+            return CONDITIONAL_HEADERS.contains(name.toLowerCase());
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isConditional(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isConditional(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return isConditional(name) ? -1 : super.getDateHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isConditional(name))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static class Entry {
+
+        private final String contentType;
+
+        private final List<String[]> headers;
+
+        private final byte[] body;
+
+        private final String eTag;
+
+        private final long storedAt = System.nanoTime();
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(String contentType, List<String[]> headers, byte[] body) {
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+            this.eTag = headers.stream()
+                    .filter(header -> header[0].equalsIgnoreCase(HttpHeaders.ETAG))
+                    .map(header -> header[1])
+                    .findFirst().orElse(null);
+        }
+
+        private boolean isFresh(long ttlNanos) {
+            return System.nanoTime() - this.storedAt < ttlNanos;
+        }
+
+        private void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            for (String[] header : this.headers) {
+                response.addHeader(header[0], header[1]);
+            }
+            if (this.eTag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), this.eTag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            if (this.contentType != null) {
+                response.setContentType(this.contentType);
+            }
+            response.setContentLength(this.body.length);
+            response.getOutputStream().write(this.body);
+        }
+
+        // If-None-Match는 약한 비교
+        private static boolean matches(String ifNoneMatch, String eTag) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String value = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package me.tialla.restapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// 이벤트 목록 필터 (query parameter). 값이 없는 조건은 무시한다.
+// status + begin 범위는 (event_status, begin_event_date_time), manager는 manager_id 인덱스를 탄다.
+@Getter @Setter
+public class EventSearch {
+
+    private EventStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beginTo;
+
+    private Boolean free;
+
+    private Boolean offline;
+
+    private Integer manager;
+
+    public Specification<Event> toSpecification() {
+        return Specification.where(statusIs(this.status))
+                .and(beginsAtOrAfter(this.beginFrom))
+                .and(beginsBefore(this.beginTo))
+                .and(attributeIs("free", this.free))
+                .and(attributeIs("offline", this.offline))
+                .and(managedBy(this.manager));
+    }
+
+    private static Specification<Event> statusIs(EventStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("eventStatus"), status);
+    }
+
+    private static Specification<Event> beginsAtOrAfter(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("beginEventDateTime"), from);
+    }
+
+    private static Specification<Event> beginsBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("beginEventDateTime"), to);
+    }
+
+    private static Specification<Event> attributeIs(String attribute, Boolean value) {
+        return value == null ? null : (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    // manager.id 는 FK 컬럼이라 account 테이블과 join 하지 않는다
+    private static Specification<Event> managedBy(Integer managerId) {
+        return managerId == null ? null : (root, query, cb) -> cb.equal(root.get("manager").get("id"), managerId);
+    }
+}
@@ -1,6 +1,7 @@
 package me.tialla.restapi.events;
 
+// PUBLISHED 이후는 EventStatusScheduler가 시간에 따라 바꾼다
 public enum EventStatus {
 
-    DRAFT, PUBLISHED, BEGAN_ENROLLMENT;
+    DRAFT, PUBLISHED, BEGAN_ENROLLMENT, CLOSED_ENROLLMENT, STARTED, ENDED;
 }
@@ -0,0 +1,202 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.DatabaseLease;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// 이벤트 상태를 시각에 따라 바꾼다. PUBLISHED -> BEGAN_ENROLLMENT -> CLOSED_ENROLLMENT -> STARTED -> ENDED
+// 다음 전환 시각(nextDue)만 메모리에 두고 tick 마다 비교하므로 평소에는 DB를 읽지 않는다. nextDue는 (eventStatus, 시각) 인덱스의
+// min() 으로 구하고 my-app.event-status-refresh 마다, 그리고 전환을 적용한 뒤 다시 읽는다. 수정된 이벤트는 schedule()로 앞당긴다.
+// 시각이 지나면 DatabaseLease를 얻은 노드 하나만 전환할 id를 인덱스로 batch-size 개씩 읽어 UPDATE ... where id in (...) 로 바꾼다.
+// 재시작하거나 여러 단계가 밀려 있어도 전환 순서대로 적용하므로 한 번의 tick에서 따라잡는다.
+@Component
+public class EventStatusScheduler {
+
+    static final String LEASE = "event-status-scheduler";
+
+    enum Transition {
+        BEGIN_ENROLLMENT(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, "beginEnrollmentDateTime", Event::getBeginEnrollmentDateTime),
+        CLOSE_ENROLLMENT(EventStatus.BEGAN_ENROLLMENT, EventStatus.CLOSED_ENROLLMENT, "closeEnrollmentDateTime", Event::getCloseEnrollmentDateTime),
+        BEGIN_EVENT(EventStatus.CLOSED_ENROLLMENT, EventStatus.STARTED, "beginEventDateTime", Event::getBeginEventDateTime),
+        END_EVENT(EventStatus.STARTED, EventStatus.ENDED, "endEventDateTime", Event::getEndEventDateTime);
+
+        private final EventStatus from;
+
+        private final EventStatus to;
+
+        private final Function<Event, LocalDateTime> dueOf;
+
+        private final String nextDueQuery;
+
+        private final String dueIdsQuery;
+
+        // 응답 본문(eventStatus)이 바뀌므로 ETag/Last-Modified 도 바뀌도록 version과 수정 시각을 함께 올린다
+        private static final String APPLY = "update Event e set e.eventStatus = :to, e.version = e.version + 1, " +
+                "e.lastModifiedDateTime = :now where e.id in :ids and e.eventStatus = :from";
+
+        Transition(EventStatus from, EventStatus to, String dueField, Function<Event, LocalDateTime> dueOf) {
+            this.from = from;
+            this.to = to;
+            this.dueOf = dueOf;
+            this.nextDueQuery = "select min(e." + dueField + ") from Event e where e.eventStatus = :from";
+            this.dueIdsQuery = "select e.id from Event e where e.eventStatus = :from and e." + dueField + " <= :now " +
+                    "order by e." + dueField;
+        }
+
+        static LocalDateTime nextDue(Event event) {
+            for (Transition transition : values()) {
+                if (transition.from == event.getEventStatus()) {
+                    return transition.dueOf.apply(event);
+                }
+            }
+            return null;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EventRepository eventRepository;
+
+    private final DatabaseLease lease;
+
+    private final EventResponseCache eventResponseCache;
+
+    private final Duration refreshInterval;
+
+    private final Duration leaseTtl;
+
+    private final int batchSize;
+
+    private final Map<Transition, Counter> transitions = new EnumMap<>(Transition.class);
+
+    private final AtomicReference<LocalDateTime> nextDue = new AtomicReference<>();
+
+    private volatile LocalDateTime refreshAt;
+
+    public EventStatusScheduler(PlatformTransactionManager transactionManager, EventRepository eventRepository,
+                                DatabaseLease lease, EventResponseCache eventResponseCache, AppProperties appProperties,
+                                MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventRepository = eventRepository;
+        this.lease = lease;
+        this.eventResponseCache = eventResponseCache;
+        this.refreshInterval = appProperties.getEventStatusRefresh();
+        this.leaseTtl = appProperties.getEventStatusLeaseTtl();
+        this.batchSize = appProperties.getEventStatusBatchSize();
+        for (Transition transition : Transition.values()) {
+            this.transitions.put(transition, Counter.builder("event.status.transitions")
+                    .description("Events moved to the next status by the scheduler")
+                    .tag("transition", transition.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@appProperties.eventStatusTick.toMillis()}")
+    public void tick() {
+        tick(LocalDateTime.now());
+    }
+
+    // 상태를 바꾼 이벤트 수
+    public int tick(LocalDateTime now) {
+        if (this.refreshAt == null || !now.isBefore(this.refreshAt)) {
+            refresh(now);
+        }
+        LocalDateTime due = this.nextDue.get();
+        if (due == null || now.isBefore(due)) {
+            return 0;
+        }
+        if (!this.lease.tryAcquire(LEASE, this.leaseTtl)) {
+            return 0;
+        }
+
+        int applied = 0;
+        for (Transition transition : Transition.values()) {
+            applied += apply(transition, now);
+        }
+        if (applied > 0) {
+            this.eventResponseCache.invalidateAll(); // 응답의 eventStatus가 바뀌었다
+        }
+        refresh(now);
+        return applied;
+    }
+
+    // 저장한 이벤트의 다음 전환이 알고 있는 시각보다 빠르면 앞당긴다
+    public void schedule(Event event) {
+        LocalDateTime due = Transition.nextDue(event);
+        if (due != null) {
+            this.nextDue.accumulateAndGet(due, (current, candidate) ->
+                    current == null || candidate.isBefore(current) ? candidate : current);
+        }
+    }
+
+    LocalDateTime getNextDue() {
+        return this.nextDue.get();
+    }
+
+    // 다음 tick에서 DB를 다시 읽게 한다
+    void reset() {
+        this.nextDue.set(null);
+        this.refreshAt = null;
+    }
+
+    private void refresh(LocalDateTime now) {
+        LocalDateTime earliest = null;
+        for (Transition transition : Transition.values()) {
+            LocalDateTime due = this.entityManager.createQuery(transition.nextDueQuery, LocalDateTime.class)
+                    .setParameter("from", transition.from)
+                    .getSingleResult();
+            if (due != null && (earliest == null || due.isBefore(earliest))) {
+                earliest = due;
+            }
+        }
+        this.nextDue.set(earliest);
+        this.refreshAt = now.plus(this.refreshInterval);
+    }
+
+    private int apply(Transition transition, LocalDateTime now) {
+        int applied = 0;
+        while (true) {
+            List<Integer> ids = this.entityManager.createQuery(transition.dueIdsQuery, Integer.class)
+                    .setParameter("from", transition.from)
+                    .setParameter("now", now)
+                    .setMaxResults(this.batchSize)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return applied;
+            }
+
+            // 읽은 뒤 다른 곳에서 상태가 바뀐 이벤트는 from 조건에 걸려 건너뛴다
+            Integer updated = this.transactionTemplate.execute(status -> this.entityManager.createQuery(Transition.APPLY)
+                    .setParameter("to", transition.to)
+                    .setParameter("now", now)
+                    .setParameter("ids", ids)
+                    .setParameter("from", transition.from)
+                    .executeUpdate());
+            ids.forEach(this.eventRepository::evictFromCache);
+            this.transitions.get(transition).increment(updated);
+            applied += updated;
+
+            if (ids.size() < this.batchSize) {
+                return applied;
+            }
+        }
+    }
+}
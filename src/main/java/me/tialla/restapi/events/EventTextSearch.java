@@ -0,0 +1,73 @@
+package me.tialla.restapi.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// 이벤트 이름/설명 검색. 결과는 (rank 내림차순, id 오름차순)의 keyset 으로 읽고, 엔티티는 호출하는 쪽에서 id로 가져온다.
+// PostgreSQL: data-postgresql.sql 이 만드는 search_vector(tsvector, GIN 인덱스)와 ts_rank 사용
+// 그 외(H2 테스트): search_text 에 대한 LIKE, rank는 모두 0
+@Component
+public class EventTextSearch {
+
+    private static final int MAX_TERMS = 8;
+
+    private static final String POSTGRES_MATCHES = "select e.id, ts_rank(e.search_vector, q) as rank " +
+            "from event e, plainto_tsquery('simple', ?) q where e.search_vector @@ q";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean postgres;
+
+    public EventTextSearch(JdbcTemplate jdbcTemplate, @Value("${spring.datasource.platform:}") String platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = "postgresql".equals(platform);
+    }
+
+    public static List<String> terms(String query) {
+        return Arrays.stream(query.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .collect(Collectors.toList());
+    }
+
+    public List<EventRank> search(String query, EventRank after, int limit) {
+        List<Object> args = new ArrayList<>();
+        String matches;
+        if (this.postgres) {
+            matches = POSTGRES_MATCHES;
+            args.add(query);
+        } else {
+            List<String> terms = terms(query);
+            matches = "select id, cast(0 as real) as rank from event where " + terms.stream()
+                    .map(term -> "search_text like ? escape '\\'")
+                    .collect(Collectors.joining(" and "));
+            terms.forEach(term -> args.add("%" + escapeLike(term) + "%"));
+        }
+
+        StringBuilder sql = new StringBuilder("select id, rank from (").append(matches).append(") ranked");
+        if (after != null) {
+            sql.append(" where rank < ? or (rank = ? and id > ?)");
+            args.add(after.getRank());
+            args.add(after.getRank());
+            args.add(after.getId());
+        }
+        sql.append(" order by rank desc, id asc limit ?");
+        args.add(limit);
+
+        return this.jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new EventRank(rs.getFloat("rank"), rs.getInt("id")),
+                args.toArray());
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -4,25 +4,47 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Component
 public class EventValidator {
 
+    private static final Set<String> PRICE_FIELDS = Set.of("basePrice", "maxPrice");
+
+    private static final Set<String> DATE_TIME_FIELDS = Set.of("beginEnrollmentDateTime", "closeEnrollmentDateTime",
+            "beginEventDateTime", "endEventDateTime");
+
     public void validate(EventDto eventDto, Errors errors){
+        validatePrices(eventDto, errors);
+        validateDateTimes(eventDto, errors);
+
+        // TODO beginEventDateTime
+        // TODO CloseEnrollmentDateTime
+
+    }
+
+    // PATCH: 바뀐 필드가 들어있는 규칙만 검사한다
+    public void validate(EventDto eventDto, Set<String> changedFields, Errors errors){
+        if (changedFields.stream().anyMatch(PRICE_FIELDS::contains)) {
+            validatePrices(eventDto, errors);
+        }
+        if (changedFields.stream().anyMatch(DATE_TIME_FIELDS::contains)) {
+            validateDateTimes(eventDto, errors);
+        }
+    }
 
+    private void validatePrices(EventDto eventDto, Errors errors) {
         if (eventDto.getBasePrice() > eventDto.getMaxPrice() && eventDto.getMaxPrice() > 0) {
             errors.reject("wrongPrices", "Values fo prices are wrong");
         }
+    }
 
+    private void validateDateTimes(EventDto eventDto, Errors errors) {
         LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
         if (endEventDateTime.isBefore(eventDto.getBeginEventDateTime()) ||
                 endEventDateTime.isBefore(eventDto.getCloseEnrollmentDateTime()) ||
                 endEventDateTime.isBefore(eventDto.getBeginEnrollmentDateTime())) {
             errors.rejectValue("endEventDateTime", "wrongValue", "endEventDateTime is wrong");
         }
-
-        // TODO beginEventDateTime
-        // TODO CloseEnrollmentDateTime
-
     }
 }
@@ -0,0 +1,395 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.tialla.restapi.common.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 이벤트 수정(PUT/PATCH /api/events/{id}) 저장 방식.
+// DIRECT: 요청마다 바로 저장
+// WRITE_BEHIND: 같은 이벤트의 수정은 버퍼의 인스턴스 하나에 덮어쓰고(마지막 상태만 쓰면 된다),
+//   my-app.event-write-behind-window 마다 모인 이벤트를 한 트랜잭션의 JDBC batch UPDATE 로 저장한다.
+//   UPDATE 문에는 버퍼에 넣을 때와 달라진 컬럼(free, offline 포함)만 넣고, 바뀐 컬럼이 같은 수정끼리 batch로 묶는다.
+//   조회는 findById/latest 로 버퍼를 먼저 보므로 저장 전에도 마지막 수정이 보인다.
+//   version은 수정마다 메모리에서 올리고(ETag/If-Match) 저장할 때 그 값을 쓴다. DB의 version이 버퍼에 넣을 때와 다르면
+//   수정하는 컬럼이 DB에서도 그대로일 때(상태 전환만 있었을 때)는 DB의 version 위에 다시 쓰고, 아니면(다른 노드의 수정)
+//   그 이벤트의 수정은 버리고 캐시를 비운다. 응답한 뒤 저장하므로 프로세스가 죽으면 버퍼의 수정은 잃는다.
+//   버퍼의 인스턴스는 조회하는 요청들이 함께 읽으므로 바꾸지 않고, 수정할 때마다 복사본을 만들어 갈아 끼운다.
+@Component
+@Profile("!reactive")
+public class EventWriteBuffer {
+
+    public enum Mode {
+        DIRECT, WRITE_BEHIND
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(EventWriteBuffer.class);
+
+    // 충돌한 수정을 다시 쓸 수 있는지 DB의 현재 값과 비교한다
+    private static final String SELECT = "select " +
+            Arrays.stream(Column.values()).map(column -> column.column).collect(Collectors.joining(", ")) +
+            ", version from event where id = ?";
+
+    // 버퍼의 수정이 바꿀 수 있는 컬럼. 저장할 때는 버퍼에 넣을 때와 달라진 컬럼만 쓴다 (Event의 @DynamicUpdate 처럼)
+    private enum Column {
+        NAME("name", String.class, Event::getName),
+        DESCRIPTION("description", String.class, Event::getDescription),
+        BEGIN_ENROLLMENT_DATE_TIME("begin_enrollment_date_time", LocalDateTime.class, Event::getBeginEnrollmentDateTime),
+        CLOSE_ENROLLMENT_DATE_TIME("close_enrollment_date_time", LocalDateTime.class, Event::getCloseEnrollmentDateTime),
+        BEGIN_EVENT_DATE_TIME("begin_event_date_time", LocalDateTime.class, Event::getBeginEventDateTime),
+        END_EVENT_DATE_TIME("end_event_date_time", LocalDateTime.class, Event::getEndEventDateTime),
+        LOCATION("location", String.class, Event::getLocation),
+        BASE_PRICE("base_price", Integer.class, Event::getBasePrice),
+        MAX_PRICE("max_price", Integer.class, Event::getMaxPrice),
+        LIMIT_OF_ENROLLMENT("limit_of_enrollment", Integer.class, Event::getLimitOfEnrollment),
+        FREE("free", Boolean.class, Event::isFree),
+        OFFLINE("offline", Boolean.class, Event::isOffline),
+        SEARCH_TEXT("search_text", String.class, Event::getSearchText);
+
+        private final String column;
+
+        private final Class<?> type;
+
+        private final Function<Event, Object> value;
+
+        Column(String column, Class<?> type, Function<Event, Object> value) {
+            this.column = column;
+            this.type = type;
+            this.value = value;
+        }
+
+        private Object parameter(Event event) {
+            Object parameter = this.value.apply(event);
+            return parameter instanceof LocalDateTime ? Timestamp.valueOf((LocalDateTime) parameter) : parameter;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final EventRepository eventRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EventResponseCache eventResponseCache;
+
+    // 아직 저장하지 않은 수정과, 저장 중인 수정(커밋 전에도 조회에 보이도록 따로 둔다)
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Pending> flushing = new ConcurrentHashMap<>();
+
+    private final Counter coalesced;
+
+    private final Counter bypassed;
+
+    private final Counter conflicts;
+
+    private final Counter errors;
+
+    private final Timer lag;
+
+    public EventWriteBuffer(AppProperties appProperties, EventRepository eventRepository, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, EventResponseCache eventResponseCache,
+                            MeterRegistry meterRegistry) {
+        this.enabled = appProperties.getEventWriteMode() == Mode.WRITE_BEHIND;
+        if (this.enabled && !appProperties.isSchedulingEnabled()) {
+            // flush()가 돌지 않으면 버퍼의 수정은 저장되지 않는다
+            throw new IllegalStateException("my-app.event-write-mode=write-behind requires my-app.scheduling-enabled=true");
+        }
+        this.capacity = appProperties.getEventWriteBehindCapacity();
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventResponseCache = eventResponseCache;
+
+        Gauge.builder("event.write.buffer.pending", this.pending, Map::size)
+                .description("Events with buffered updates waiting to be written")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("event.write.buffer.coalesced")
+                .description("Updates merged into an update already waiting in the buffer")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("event.write.buffer.bypassed")
+                .description("Updates written directly because the buffer was full")
+                .register(meterRegistry);
+        this.conflicts = dropped(meterRegistry, "conflict");
+        this.errors = dropped(meterRegistry, "error");
+        this.lag = Timer.builder("event.write.buffer.lag")
+                .description("Time from the first buffered update of an event until it is written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("event.write.buffer.dropped")
+                .description("Buffered event updates discarded instead of written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // write-behind 이고 버퍼에 자리가 있으면 true. 가득 차면 기다리지 않고 바로 저장하게 한다
+    public boolean accepts(Integer id) {
+        if (!this.enabled) {
+            return false;
+        }
+        if (this.pending.size() < this.capacity || this.pending.containsKey(id)) {
+            return true;
+        }
+        this.bypassed.increment();
+        return false;
+    }
+
+    // 버퍼에 있으면 그 이벤트(의 복사본), 없으면 저장소(캐시)에서 읽는다
+    public Optional<Event> findById(Integer id) {
+        Event buffered = buffered(id);
+        return buffered != null ? Optional.of(buffered.copy()) : this.eventRepository.findById(id);
+    }
+
+    // DB에서 읽은 이벤트를 버퍼에 있는 최신 상태로 바꾼다
+    public List<Event> latest(List<Event> events) {
+        if (this.pending.isEmpty() && this.flushing.isEmpty()) {
+            return events;
+        }
+        return events.stream().map(this::latest).collect(Collectors.toList());
+    }
+
+    public Page<Event> latest(Page<Event> page) {
+        if (this.pending.isEmpty() && this.flushing.isEmpty()) {
+            return page;
+        }
+        return page.map(this::latest);
+    }
+
+    private Event latest(Event event) {
+        Event buffered = buffered(event.getId());
+        return buffered != null ? buffered : event;
+    }
+
+    private Event buffered(Integer id) {
+        Pending entry = this.pending.get(id);
+        if (entry == null) {
+            entry = this.flushing.get(id);
+        }
+        return entry != null ? entry.event : null;
+    }
+
+    // expectedVersion은 호출한 쪽이 If-Match 등으로 확인한 version. 그 사이 다른 수정이 먼저 들어왔으면 empty
+    // 같은 이벤트의 수정과 flush는 ConcurrentHashMap.compute 로 차례대로 실행된다
+    public Optional<Event> update(Event event, long expectedVersion, Consumer<Event> mapping) {
+        Event[] updated = new Event[1];
+        this.pending.compute(event.getId(), (id, entry) -> {
+            Event current = entry != null ? entry.event : event;
+            if (current.getVersion() != expectedVersion) {
+                return entry;
+            }
+            Event target = current.copy();
+            mapping.accept(target);
+            target.updateSearchText();
+            target.setVersion(expectedVersion + 1);
+            target.setLastModifiedDateTime(LocalDateTime.now());
+            if (entry != null) {
+                this.coalesced.increment();
+            }
+            updated[0] = target;
+            return entry != null ? entry.with(target) : new Pending(event.copy(), target);
+        });
+        return Optional.ofNullable(updated[0]);
+    }
+
+    // 저장한 이벤트 수
+    @Scheduled(fixedDelayString = "#{@appProperties.eventWriteBehindWindow.toMillis()}")
+    public synchronized int flush() {
+        if (this.pending.isEmpty()) {
+            return 0;
+        }
+
+        // 바뀐 컬럼이 같은 수정끼리 UPDATE 문 하나로 묶는다
+        List<Pending> batch = new ArrayList<>();
+        Map<Set<Column>, List<Pending>> statements = new LinkedHashMap<>();
+        for (Integer id : this.pending.keySet()) {
+            this.pending.computeIfPresent(id, (key, entry) -> {
+                batch.add(entry);
+                statements.computeIfAbsent(entry.changed(), columns -> new ArrayList<>()).add(entry);
+                this.flushing.put(key, entry);
+                return null;
+            });
+        }
+
+        Map<Pending, Integer> counts = new HashMap<>();
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> statements.forEach((columns, entries) -> {
+                int[] updated = this.jdbcTemplate.batchUpdate(update(columns), entries.stream()
+                        .map(entry -> entry.toArgs(columns, entry.event.getVersion(), entry.baseVersion))
+                        .collect(Collectors.toList()));
+                for (int i = 0; i < entries.size(); i++) {
+                    counts.put(entries.get(i), updated[i]);
+                }
+            }));
+        } catch (DataAccessException e) {
+            log.warn("Dropped {} buffered event updates", batch.size(), e);
+            for (Pending entry : batch) {
+                this.errors.increment();
+                discard(entry);
+            }
+            return 0;
+        }
+
+        int written = 0;
+        long now = System.nanoTime();
+        for (Pending entry : batch) {
+            if (counts.get(entry) == 0 && !reapply(entry)) { // 버퍼에 넣은 뒤 DB에서 수정하는 컬럼이 바뀌었다
+                this.conflicts.increment();
+                discard(entry);
+                continue;
+            }
+            this.lag.record(now - entry.bufferedAt, TimeUnit.NANOSECONDS);
+            // 캐시에는 버퍼에 넣기 전의 이벤트가 남아 있을 수 있다. flushing에서 먼저 빼면 그 사이 조회가 이전 본문과 ETag를 보고, 새 ETag로 수정하면 412가 된다
+            this.eventRepository.evictFromCache(entry.event.getId());
+            this.flushing.remove(entry.event.getId(), entry);
+            written++;
+        }
+        return written;
+    }
+
+    // 상태 전환(EventStatusScheduler)은 eventStatus와 version만 바꾼다. 수정하는 컬럼이 버퍼에 넣을 때 그대로면
+    // 버퍼의 수정을 DB의 version 위에 다시 쓴다. version은 양쪽에서 내준 값보다 크게 한다
+    private boolean reapply(Pending entry) {
+        try {
+            long[] version = new long[1];
+            Boolean unchanged = this.jdbcTemplate.query(SELECT, (ResultSetExtractor<Boolean>) rs -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                for (Column column : Column.values()) {
+                    if (!Objects.equals(rs.getObject(column.column, column.type), column.value.apply(entry.base))) {
+                        return false;
+                    }
+                }
+                version[0] = rs.getLong("version");
+                return true;
+            }, entry.event.getId());
+            if (!Boolean.TRUE.equals(unchanged)) {
+                return false;
+            }
+            long nextVersion = Math.max(version[0], entry.event.getVersion()) + 1;
+            Set<Column> columns = entry.changed();
+            if (this.jdbcTemplate.update(update(columns), entry.toArgs(columns, nextVersion, version[0])) != 1) {
+                return false;
+            }
+            this.eventResponseCache.invalidateAll(); // 응답에 나간 ETag(version)가 바뀌었다
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not rewrite buffered update of event {}", entry.event.getId(), e);
+            return false;
+        }
+    }
+
+    // 바뀐 컬럼과 version, 수정 시각만 쓴다. version이 버퍼에 넣을 때와 같을 때만 바뀐다
+    private static String update(Set<Column> columns) {
+        StringBuilder sql = new StringBuilder("update event set ");
+        for (Column column : columns) {
+            sql.append(column.column).append(" = ?, ");
+        }
+        return sql.append("version = ?, last_modified_date_time = ? where id = ? and version = ?").toString();
+    }
+
+    // 버린 수정은 조회 응답에 이미 나갔을 수 있다. 저장할 때처럼 캐시를 먼저 비운 뒤 flushing에서 뺀다
+    private void discard(Pending entry) {
+        this.eventRepository.evictFromCache(entry.event.getId());
+        this.eventResponseCache.invalidateAll();
+        this.flushing.remove(entry.event.getId(), entry);
+    }
+
+    // 종료할 때 남은 수정을 저장한다
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // 버퍼에 넣을 때의 이벤트(base)와 마지막 수정(event). 둘 다 만든 뒤에는 바꾸지 않는다
+    private static class Pending {
+
+        private final Event base;
+
+        private final Event event;
+
+        private final long baseVersion;
+
+        private final long bufferedAt;
+
+        private Pending(Event base, Event event) {
+            this(base, event, System.nanoTime());
+        }
+
+        private Pending(Event base, Event event, long bufferedAt) {
+            this.base = base;
+            this.event = event;
+            this.baseVersion = base.getVersion();
+            this.bufferedAt = bufferedAt;
+        }
+
+        private Pending with(Event event) {
+            return new Pending(this.base, event, this.bufferedAt);
+        }
+
+        // 버퍼에 넣을 때와 값이 다른 컬럼
+        private Set<Column> changed() {
+            Set<Column> columns = EnumSet.noneOf(Column.class);
+            for (Column column : Column.values()) {
+                if (!Objects.equals(column.value.apply(this.event), column.value.apply(this.base))) {
+                    columns.add(column);
+                }
+            }
+            return columns;
+        }
+
+        private Object[] toArgs(Set<Column> columns, long version, long whereVersion) {
+            List<Object> args = new ArrayList<>();
+            for (Column column : columns) {
+                args.add(column.parameter(this.event));
+            }
+            args.add(version);
+            args.add(timestamp(this.event.getLastModifiedDateTime()));
+            args.add(this.event.getId());
+            args.add(whereVersion);
+            return args.toArray();
+        }
+
+        private static Timestamp timestamp(LocalDateTime dateTime) {
+            return dateTime == null ? null : Timestamp.valueOf(dateTime);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.CurrentUser;
+import me.tialla.restapi.common.ErrorsResource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
+
+// reactive 프로필용 이벤트 API (생성/목록/조회/수정). 응답은 EventController와 같다 (If-None-Match가 맞으면 본문을 만들지 않고 304).
+// OAuth2 리소스 서버가 서블릿 전용이라 WebFlux로 바꾸지 않고 MVC에서 Mono를 돌려준다. DB를 기다리는 동안 Tomcat 스레드는 반납되고
+// 결과가 오면 async dispatch로 응답을 쓴다. 요청에 묶인 값(현재 사용자, 링크 base URI)은 Mono를 만들기 전에 요청 스레드에서 꺼내 둔다.
+@Controller
+@Profile("reactive")
+@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
+public class ReactiveEventController {
+
+    private final ReactiveEventRepository eventRepository;
+
+    private final EventMapper eventMapper;
+
+    private final EventValidator eventValidator;
+
+    private final EventStatusScheduler eventStatusScheduler;
+
+    public ReactiveEventController(ReactiveEventRepository eventRepository, EventMapper eventMapper, EventValidator eventValidator,
+                                   EventStatusScheduler eventStatusScheduler) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.eventValidator = eventValidator;
+        this.eventStatusScheduler = eventStatusScheduler;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity> createEvent(@RequestBody @Valid EventDto eventDto,
+                                            Errors errors,
+                                            @CurrentUser Account currentUser) {
+        if(errors.hasErrors()){
+            return Mono.just(badRequest(errors));
+        }
+
+        eventValidator.validate(eventDto, errors);
+        if(errors.hasErrors()){
+            return Mono.just(badRequest(errors));
+        }
+
+        Event event = eventMapper.toEvent(eventDto);
+        event.update();
+        event.setManager(currentUser);
+
+        String events = EventLinks.events();
+        return this.eventRepository.save(event).map(newEvent -> {
+            EntityModel<Event> eventResource = EventResource.modelof(newEvent, events);
+            eventResource.add(Link.of(events, "query-events"));
+            eventResource.add(Link.of(events + "/" + newEvent.getId(), "update-event"));
+            eventResource.add(Link.of("/docs/index.html#resources-events-create").withRel("profile"));
+            return ResponseEntity.created(URI.create(events)).body(eventResource);
+        });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity> queryEvents(Pageable pageable,
+                                            @CurrentUser Account account,
+                                            WebRequest webRequest) {
+        String events = EventLinks.events();
+        UriComponents baseUri = ServletUriComponentsBuilder.fromCurrentRequest().build();
+        PagedResourcesAssembler<Event> assembler = new PagedResourcesAssembler<>(null, baseUri);
+
+        return this.eventRepository.findAll(pageable).map(page -> {
+            String eTag = EventETags.ofPage(page.getNumber() + "/" + page.getSize() + "/" + page.getTotalElements() + "/" + page.getSort(),
+                    page.getContent(), account != null);
+            if(EventETags.isNotModified(webRequest, eTag, -1)){
+                return EventETags.notModified(eTag, -1); // 304, HAL 모델 생성과 직렬화를 건너뛴다
+            }
+
+            var pageResource = assembler.toModel(page, event -> EventResource.modelof(event, events));
+            pageResource.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+            if(account != null){
+                pageResource.add(Link.of(events, "create-event"));
+            }
+            return EventETags.validators(ResponseEntity.ok(), eTag, -1).body(pageResource);
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity> getEvent(@PathVariable Integer id,
+                                         @CurrentUser Account currentUser,
+                                         WebRequest webRequest) {
+        String events = EventLinks.events();
+        return this.eventRepository.findById(id).map(event -> {
+            boolean managerView = event.isManagedBy(currentUser);
+            String eTag = EventETags.of(event, managerView);
+            long lastModified = EventETags.lastModified(event);
+            if(EventETags.isNotModified(webRequest, eTag, lastModified)){
+                return EventETags.notModified(eTag, lastModified);
+            }
+
+            EntityModel<Event> eventResource = EventResource.modelof(event, events);
+            eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+            if(managerView){
+                eventResource.add(Link.of(events + "/" + event.getId(), "update-event"));
+            }
+            return (ResponseEntity) EventETags.validators(ResponseEntity.ok(), eTag, lastModified).body(eventResource);
+        }).defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity> updateEvent(@PathVariable Integer id,
+                                            @RequestBody @Valid EventDto eventDto,
+                                            Errors errors,
+                                            @CurrentUser Account currentUser,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // 검증과 오류 본문(인덱스 링크)은 요청 스레드에서 먼저 만든다. 응답 순서(404 > 400)는 EventController와 같다
+        if(!errors.hasErrors()){
+            this.eventValidator.validate(eventDto, errors);
+        }
+        ResponseEntity badRequest = errors.hasErrors() ? badRequest(errors) : null;
+
+        String events = EventLinks.events();
+        return this.eventRepository.findById(id).flatMap(existingEvent -> {
+            if(badRequest != null){
+                return Mono.just(badRequest);
+            }
+
+            if(!existingEvent.isManagedBy(currentUser)){
+                return Mono.just((ResponseEntity) new ResponseEntity(HttpStatus.UNAUTHORIZED));
+            }
+
+            if(ifMatch != null && !EventETags.matches(ifMatch, existingEvent)){
+                return Mono.just((ResponseEntity) new ResponseEntity(HttpStatus.PRECONDITION_FAILED));
+            }
+
+            this.eventMapper.map(eventDto, existingEvent);
+            return this.eventRepository.save(existingEvent).doOnNext(this.eventStatusScheduler::schedule).map(savedEvent -> {
+                EntityModel<Event> eventResource = EventResource.modelof(savedEvent, events);
+                eventResource.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
+                return (ResponseEntity) ResponseEntity.ok().eTag(EventETags.of(savedEvent, true)).body(eventResource);
+            }).onErrorReturn(OptimisticLockingFailureException.class, new ResponseEntity(HttpStatus.PRECONDITION_FAILED));
+        }).defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity badRequest(Errors errors) {
+        return ResponseEntity.badRequest().body(ErrorsResource.modelOf(errors));
+    }
+}
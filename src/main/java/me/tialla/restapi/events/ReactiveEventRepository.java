@@ -0,0 +1,73 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.configs.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+// EventRepository의 R2DBC 버전. 조회/저장 동안 요청 스레드를 잡지 않는다.
+@Repository
+@Profile("reactive")
+public class ReactiveEventRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    private final CacheManager cacheManager;
+
+    public ReactiveEventRepository(R2dbcEntityTemplate template, CacheManager cacheManager) {
+        this.template = template;
+        this.cacheManager = cacheManager;
+    }
+
+    public Mono<Event> findById(Integer id) {
+        return this.template.selectOne(Query.query(where("id").is(id)), EventRecord.class)
+                .map(EventRecord::toEvent);
+    }
+
+    public Mono<Page<Event>> findAll(Pageable pageable) {
+        return this.template.select(Query.empty().with(pageable), EventRecord.class)
+                .map(EventRecord::toEvent)
+                .collectList()
+                .zipWith(this.template.count(Query.empty(), EventRecord.class))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    // version이 다르면 OptimisticLockingFailureException
+    public Mono<Event> save(Event event) {
+        Mono<EventRecord> saved = event.getId() == null
+                ? nextId().flatMap(id -> this.template.insert(withId(EventRecord.of(event), id)))
+                : this.template.update(EventRecord.of(event));
+        return saved.map(EventRecord::toEvent)
+                .doOnNext(savedEvent -> evictFromCache(savedEvent.getId()));
+    }
+
+    // JPA의 pooled optimizer는 시퀀스 값 v를 받으면 (v-49 ~ v)를 쓰므로, 여기서 받은 v를 그대로 id로 쓰면 겹치지 않는다
+    private Mono<Integer> nextId() {
+        return this.template.getDatabaseClient()
+                .sql("select nextval('event_seq')")
+                .map(row -> row.get(0, Long.class).intValue())
+                .one();
+    }
+
+    private EventRecord withId(EventRecord record, Integer id) {
+        record.setId(id);
+        return record;
+    }
+
+    // JPA 쪽 단건 캐시가 R2DBC로 쓴 값과 어긋나지 않도록 비운다
+    public void evictFromCache(Integer id) {
+        Cache cache = this.cacheManager.getCache(CacheConfig.EVENTS);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
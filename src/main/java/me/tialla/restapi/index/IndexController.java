@@ -1,19 +1,17 @@
 package me.tialla.restapi.index;
 
-import me.tialla.restapi.events.EventController;
+import me.tialla.restapi.events.EventLinks;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
 public class IndexController {
 
     @GetMapping("/api")
     public RepresentationModel index() {
         var index = new RepresentationModel();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(EventLinks.events("events"));
         return index;
     }
 }
@@ -0,0 +1,5 @@
+-- 이벤트 검색용 tsvector. search_text(name + description)는 애플리케이션이 저장할 때 채우고, 이 컬럼은 DB가 갱신한다.
+alter table event add column if not exists search_vector tsvector
+    generated always as (to_tsvector('simple', coalesce(search_text, ''))) stored;
+
+create index if not exists idx_event_search_vector on event using gin (search_vector);
@@ -0,0 +1,25 @@
+-- JdbcTokenStore 테이블 (JPA 엔티티가 아니므로 ddl-auto 대상이 아니다)
+create table if not exists oauth_access_token (
+    token_id varchar(256),
+    token bytea,
+    authentication_id varchar(256) primary key,
+    user_name varchar(256),
+    client_id varchar(256),
+    authentication bytea,
+    refresh_token varchar(256)
+);
+
+create table if not exists oauth_refresh_token (
+    token_id varchar(256),
+    token bytea,
+    authentication bytea
+);
+
+-- 여러 노드 중 한 곳에서만 실행할 작업의 임대 (DatabaseLease)
+create table if not exists scheduler_lease (
+    name varchar(64) primary key,
+    owner varchar(256) not null,
+    expires_at timestamp with time zone not null
+);
+-- 만료 시각은 DB 시계로 정한다. 세션 시간대가 다른 노드끼리도 같은 시각을 비교하도록 시간대를 붙인다 (이전 스키마로 만든 테이블도 바꾼다)
+alter table scheduler_lease alter column expires_at type timestamp with time zone;
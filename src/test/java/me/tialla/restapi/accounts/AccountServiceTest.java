@@ -1,12 +1,17 @@
 package me.tialla.restapi.accounts;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import me.tialla.restapi.common.BaseTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
 import java.util.Set;
 
@@ -16,10 +21,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class AccountServiceTest extends BaseTest {
 
     @Autowired
-    AccountService accountService;
+    PasswordEncoder passwordEncoder;
 
     @Autowired
-    PasswordEncoder passwordEncoder;
+    AccountRepository accountRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    AuthenticationManager authenticationManager;
 
     @Test
     public void findByUsername(){
@@ -42,6 +53,101 @@ public class AccountServiceTest extends BaseTest {
         assertThat(this.passwordEncoder.matches(password,userDetails.getPassword())).isTrue(); //(입력한값, DB값)
     }
 
+    @Test
+    public void findByUsernameAfterSave(){
+        //Given
+        String username = "cached@email.com";
+        Account account = Account.builder()
+                .email(username)
+                .password("pass")
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        Account saved = this.accountService.saveAccount(account);
+        this.accountService.loadUserByUsername(username);
+
+        //When 캐시된 것과 다른 인스턴스로 비밀번호를 바꾼다
+        Account changed = this.accountRepository.findById(saved.getId()).orElseThrow();
+        changed.setPassword("changed");
+        this.accountService.saveAccount(changed);
+
+        //Then
+        UserDetails userDetails = this.accountService.loadUserByUsername(username);
+        assertThat(this.passwordEncoder.matches("changed", userDetails.getPassword())).isTrue();
+        assertThat(this.meterRegistry.find("cache.gets").tag("cache", "accounts").tag("result", "hit").functionCounter()).isNotNull();
+    }
+
+    @Test
+    public void sharedAuthorities(){
+        Account admin = Account.builder().email("a@email.com").password("pass").roles(Set.of(AccountRole.ADMIN, AccountRole.USER)).build();
+        Account other = Account.builder().email("b@email.com").password("pass").roles(Set.of(AccountRole.USER, AccountRole.ADMIN)).build();
+
+        assertThat(new AccountAdapter(admin).getAuthorities())
+                .extracting("authority")
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        assertThat(new AccountAdapter(admin).getAuthorities()).isSameAs(new AccountAdapter(other).getAuthorities());
+    }
+
+    @Test
+    public void rehashWeakPasswordOnLogin(){
+        //Given 현재 설정보다 약한 강도로 저장된 비밀번호
+        String username = "weak@email.com";
+        Account account = Account.builder()
+                .email(username)
+                .password("{bcrypt}" + new BCryptPasswordEncoder(4).encode("pass"))
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        this.accountRepository.save(account);
+
+        //When
+        this.authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, "pass"));
+
+        //Then
+        String rehashed = this.accountRepository.findByEmail(username).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$10$");
+        assertThat(this.passwordEncoder.matches("pass", rehashed)).isTrue();
+    }
+
+    @Test
+    public void rehashDoesNotTouchCachedAccount(){
+        //Given 캐시에 올라간 약한 해시의 계정
+        String username = "weak-cached@email.com";
+        String weak = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("pass");
+        this.accountRepository.save(Account.builder()
+                .email(username)
+                .password(weak)
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        Account cached = this.accountRepository.findByEmail(username).orElseThrow();
+
+        //When
+        this.accountService.updatePassword(new AccountAdapter(cached), "{bcrypt}" + new BCryptPasswordEncoder(10).encode("pass"));
+
+        //Then 캐시에 있던 인스턴스는 그대로이고, 다시 읽으면 새 해시다
+        assertThat(cached.getPassword()).isEqualTo(weak);
+        assertThat(this.accountRepository.findByEmail(username).orElseThrow().getPassword()).startsWith("{bcrypt}$2a$10$");
+    }
+
+    @Test
+    public void loginWithOtherEncodingIdAndRehash(){
+        //Given bcrypt가 아닌 id로 저장된 비밀번호
+        String username = "pbkdf2@email.com";
+        Account account = Account.builder()
+                .email(username)
+                .password("{pbkdf2}" + new Pbkdf2PasswordEncoder().encode("pass"))
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        this.accountRepository.save(account);
+        assertThat(this.passwordEncoder.matches("pass", "{noop}pass")).isTrue();
+
+        //When
+        this.authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, "pass"));
+
+        //Then
+        String rehashed = this.accountRepository.findByEmail(username).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$10$");
+        assertThat(this.passwordEncoder.matches("pass", rehashed)).isTrue();
+    }
+
     @Test
     public void findByUsernameFail(){
         String username = "random@email.com";
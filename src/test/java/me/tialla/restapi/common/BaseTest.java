@@ -1,6 +1,9 @@
 package me.tialla.restapi.common;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRole;
+import me.tialla.restapi.accounts.AccountService;
 import org.junit.jupiter.api.Disabled;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +11,15 @@ import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDoc
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Set;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 @AutoConfigureRestDocs
@@ -27,4 +36,41 @@ public class BaseTest {
 
     @Autowired
     protected ModelMapper modelMapper;
+
+    @Autowired
+    protected AccountService accountService;
+
+    @Autowired
+    protected AppProperties appProperties;
+
+    protected String getBearerToken() throws Exception {
+        return getBearerToken(true);
+    }
+
+    // 계정을 이미 만든 테스트는 false로 토큰만 받는다
+    protected String getBearerToken(boolean needToCreateAccount) throws Exception {
+        if(needToCreateAccount) {
+            createAccount();
+        }
+        return "Bearer " + getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+    }
+
+    protected String getAccessToken(String username, String password) throws Exception {
+        String responseBody = this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", username)
+                    .param("password", password)
+                    .param("grant_type", "password"))
+                .andReturn().getResponse().getContentAsString();
+        return new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+    }
+
+    protected Account createAccount() {
+        Account tialla = Account.builder()
+                .email(appProperties.getUserUsername())
+                .password(appProperties.getUserPassword())
+                .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
+                .build();
+        return this.accountService.saveAccount(tialla);
+    }
 }
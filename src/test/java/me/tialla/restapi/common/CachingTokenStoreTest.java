@@ -0,0 +1,69 @@
+package me.tialla.restapi.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingTokenStoreTest {
+
+    private final InMemoryTokenStore delegate = new InMemoryTokenStore();
+
+    @Test
+    public void removeCachedTokensUsingRefreshToken() {
+        CachingTokenStore tokenStore = new CachingTokenStore(delegate, 100, Duration.ofHours(1), new SimpleMeterRegistry());
+        DefaultOAuth2AccessToken accessToken = accessToken("access", "refresh");
+        DefaultOAuth2AccessToken other = accessToken("other", "other-refresh");
+        tokenStore.storeAccessToken(accessToken, authentication());
+        tokenStore.storeAccessToken(other, authentication());
+        assertThat(tokenStore.readAccessToken("access")).isNotNull();
+        assertThat(tokenStore.readAccessToken("other")).isNotNull();
+
+        // 다른 노드에서 지운 것처럼 영속 저장소에서만 지운다
+        delegate.removeAccessToken(accessToken);
+        delegate.removeAccessToken(other);
+        assertThat(tokenStore.readAccessToken("access")).isNotNull();
+
+        tokenStore.removeAccessTokenUsingRefreshToken(accessToken.getRefreshToken());
+
+        assertThat(tokenStore.readAccessToken("access")).isNull();
+        assertThat(tokenStore.readAccessToken("other")).isNotNull();
+    }
+
+    @Test
+    public void revokedOnOtherNodeAfterTtl() throws Exception {
+        CachingTokenStore tokenStore = new CachingTokenStore(delegate, 100, Duration.ofMillis(100), new SimpleMeterRegistry());
+        DefaultOAuth2AccessToken accessToken = accessToken("access", "refresh");
+        tokenStore.storeAccessToken(accessToken, authentication());
+        assertThat(tokenStore.readAuthentication("access")).isNotNull();
+
+        delegate.removeAccessToken(accessToken);
+        Thread.sleep(200);
+
+        assertThat(tokenStore.readAuthentication("access")).isNull();
+    }
+
+    private static DefaultOAuth2AccessToken accessToken(String value, String refreshToken) {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(value);
+        accessToken.setRefreshToken(new DefaultOAuth2RefreshToken(refreshToken));
+        return accessToken;
+    }
+
+    private static OAuth2Authentication authentication() {
+        OAuth2Request request = new OAuth2Request(Map.of(), "myApp", AuthorityUtils.NO_AUTHORITIES, true, Set.of("read"),
+                Set.of(), null, Set.of(), Map.of());
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("user@email.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
@@ -0,0 +1,86 @@
+package me.tialla.restapi.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OffloadingPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // release 될 때까지 해시 스레드를 붙잡고 있는 encoder
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private final OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(slowEncoder, 1, 1, meterRegistry);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    public void rejectWhenSaturated() throws Exception {
+        // 하나는 실행 중, 하나는 큐에서 대기
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("pass", "pass"));
+        waitForQueued(0);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("pass", "pass"));
+        waitForQueued(1);
+
+        PasswordHashingBusyException exception = assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.matches("pass", "pass"));
+        ResponseEntity<OAuth2Exception> response = new DefaultWebResponseExceptionTranslator().translate(exception);
+        assertThat(response.getStatusCodeValue()).isEqualTo(429);
+        assertThat(response.getBody().getOAuth2ErrorCode()).isEqualTo("temporarily_unavailable");
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            double active = meterRegistry.get("executor.active").gauge().value();
+            double queued = meterRegistry.get("executor.queued").gauge().value();
+            if (active == 1 && queued == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("password hash executor did not reach the expected state");
+    }
+
+    private void await() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.tialla.restapi.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SamplingTurboFilterTest {
+
+    // 애플리케이션 로깅과 섞이지 않도록 별도 LoggerContext를 쓴다
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    private Logger sqlLogger;
+
+    @BeforeEach
+    public void setUp() {
+        this.sqlLogger = this.loggerContext.getLogger("org.hibernate.SQL");
+        this.sqlLogger.setLevel(Level.DEBUG);
+        this.filter.setLoggers("org.hibernate.SQL, org.springframework.security");
+        this.filter.start();
+    }
+
+    @Test
+    @DisplayName("sampleRate 건 중 1건만 통과")
+    public void samplesTracedLoggers() {
+        this.filter.setSampleRate(10);
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (this.filter.decide(null, this.sqlLogger, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isEqualTo(10);
+        assertThat(this.filter.getDropped()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("초당 maxPerSecond 건을 넘으면 거절")
+    public void limitsRatePerSecond() {
+        this.filter.setMaxPerSecond(5);
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (this.filter.decide(null, this.sqlLogger, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+                accepted++;
+            }
+        }
+
+        // 반복 중에 초가 바뀌면 한 번 더 채워진다
+        assertThat(accepted).isBetween(5, 10);
+    }
+
+    @Test
+    @DisplayName("isDebugEnabled()로 통과한 뒤 이어지는 로그 호출은 다시 세지 않음")
+    public void probeDecidesFollowingCall() {
+        this.filter.setSampleRate(2);
+
+        int logged = 0;
+        for (int i = 0; i < 10; i++) {
+            if (this.filter.decide(null, this.sqlLogger, Level.DEBUG, null, null, null) == FilterReply.NEUTRAL
+                    && this.filter.decide(null, this.sqlLogger, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+                logged++;
+            }
+        }
+
+        assertThat(logged).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("대상이 아닌 로거, INFO 이상, 레벨에서 걸러질 호출은 건드리지 않음")
+    public void leavesOtherCallsAlone() {
+        this.filter.setSampleRate(1000);
+        Logger other = this.loggerContext.getLogger("me.tialla.restapi.events");
+        other.setLevel(Level.DEBUG);
+
+        assertThat(this.filter.decide(null, other, Level.DEBUG, "hello", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(this.filter.decide(null, this.sqlLogger, Level.WARN, "slow", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(this.filter.decide(null, this.sqlLogger, Level.TRACE, "bind", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(this.filter.getDropped()).isZero();
+    }
+}
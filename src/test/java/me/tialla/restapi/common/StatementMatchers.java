@@ -0,0 +1,28 @@
+package me.tialla.restapi.common;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// MockMvc 요청이 실행한 SQL(RequestStatements)을 검증한다. 목록/검색에 N+1이 생기면 테스트가 실패한다
+public class StatementMatchers {
+
+    public static ResultMatcher statementCountAtMost(int max) {
+        return result -> assertThat(statements(result).getCount())
+                .as("SQL statements executed by %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    public static ResultMatcher noRepeatedStatements() {
+        return result -> assertThat(statements(result).getRepeated(1))
+                .as("SQL statements executed more than once by %s", result.getRequest().getRequestURI())
+                .isEmpty();
+    }
+
+    private static RequestStatements statements(MvcResult result) {
+        RequestStatements statements = (RequestStatements) result.getRequest().getAttribute(RequestStatements.ATTRIBUTE);
+        assertThat(statements).as("StatementRecorderFilter did not run").isNotNull();
+        return statements;
+    }
+}
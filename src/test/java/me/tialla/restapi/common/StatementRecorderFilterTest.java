@@ -0,0 +1,65 @@
+package me.tialla.restapi.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.tialla.restapi.events.Event;
+import me.tialla.restapi.events.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StatementRecorderFilterTest extends BaseTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @AfterEach
+    public void tearDown() {
+        this.appProperties.setStatementCountThreshold(20);
+        this.appProperties.setRepeatedStatementThreshold(5);
+        this.eventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("SQL 문 수나 같은 SQL 반복 횟수가 기준을 넘은 요청은 카운터를 올리는지 확인")
+    public void flagsRequestsOverThresholds() throws Exception {
+        //Given 기준을 낮춰서 목록 조회(select + count)가 걸리도록
+        this.eventRepository.save(Event.builder()
+                .name("event")
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .build());
+        this.appProperties.setStatementCountThreshold(1);
+        double statements = flagged("statements");
+        double repeated = flagged("repeated");
+
+        //When
+        this.mockMvc.perform(get("/api/events").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk());
+
+        //Then SQL 문은 2개, 반복은 없음
+        assertThat(flagged("statements")).isEqualTo(statements + 1);
+        assertThat(flagged("repeated")).isEqualTo(repeated);
+
+        //When 같은 요청을 다시 보내도 요청마다 따로 센다
+        this.appProperties.setStatementCountThreshold(20);
+        this.appProperties.setRepeatedStatementThreshold(0);
+        this.mockMvc.perform(get("/api/events").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk());
+
+        assertThat(flagged("statements")).isEqualTo(statements + 1);
+        assertThat(flagged("repeated")).isEqualTo(repeated + 1);
+    }
+
+    private double flagged(String reason) {
+        return this.meterRegistry.get("db.request.flagged").tag("reason", reason).counter().count();
+    }
+}
@@ -1,12 +1,23 @@
 package me.tialla.restapi.configs;
 
-import me.tialla.restapi.accounts.AccountService;
-import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.accounts.AccountAdapter;
 import me.tialla.restapi.common.BaseTest;
 import me.tialla.restapi.common.TestDescription;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -17,10 +28,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class AuthServerConfigTest extends BaseTest {
 
     @Autowired
-    AccountService accountService;
-
-    @Autowired
-    AppProperties appProperties;
+    DataSource dataSource;
 
     @Test
     @DisplayName("인증 토큰을 발급 받는 테스트")
@@ -37,4 +45,48 @@ public class AuthServerConfigTest extends BaseTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("발급한 토큰이 DB에 저장되어 다른 노드에서도 검증되는 테스트")
+    public void getAuthTokenFromJdbcStore() throws Exception {
+        MockHttpServletResponse response = this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", appProperties.getUserUsername())
+                    .param("password", appProperties.getUserPassword())
+                    .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String accessToken = new Jackson2JsonParser().parseMap(response.getContentAsString()).get("access_token").toString();
+
+        // 캐시를 거치지 않는 별도의 TokenStore로 읽는다
+        TokenStore otherNodeStore = new JdbcTokenStore(dataSource);
+        assertThat(otherNodeStore.readAccessToken(accessToken)).isNotNull();
+        assertThat(otherNodeStore.readAuthentication(accessToken).getName()).isEqualTo(appProperties.getUserUsername());
+    }
+
+    @Test
+    @DisplayName("토큰 테이블에 직렬화된 인증 정보에 비밀번호 해시가 없는 테스트")
+    public void storedAuthenticationHasNoPassword() throws Exception {
+        String responseBody = this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", appProperties.getUserUsername())
+                    .param("password", appProperties.getUserPassword())
+                    .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<String, Object> token = new Jackson2JsonParser().parseMap(responseBody);
+
+        // 캐시를 거치지 않는 별도의 TokenStore로 읽는다
+        JdbcTokenStore otherNodeStore = new JdbcTokenStore(dataSource);
+        OAuth2Authentication accessAuthentication = otherNodeStore.readAuthentication(token.get("access_token").toString());
+        OAuth2Authentication refreshAuthentication = otherNodeStore.readAuthenticationForRefreshToken(
+                otherNodeStore.readRefreshToken(token.get("refresh_token").toString()));
+        for (OAuth2Authentication authentication : List.of(accessAuthentication, refreshAuthentication)) {
+            AccountAdapter principal = (AccountAdapter) authentication.getPrincipal();
+            assertThat(principal.getPassword()).isNull();
+            assertThat(principal.getAccount().getPassword()).isNull();
+            assertThat(principal.getAccount().getEmail()).isEqualTo(appProperties.getUserUsername());
+            assertThat(principal.getAccount().getRoles()).isInstanceOf(EnumSet.class);
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package me.tialla.restapi.configs;
+
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.accounts.AccountRole;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMetrics
+public class ResourceServerConfigTest extends BaseTest {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @BeforeEach
+    public void setUp(){
+        this.accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("USER 권한 토큰으로는 로그 레벨을 읽거나 바꿀 수 없는 테스트")
+    public void userCannotChangeLogLevels() throws Exception {
+        String bearerToken = "Bearer " + tokenFor(appProperties.getUserUsername(), appProperties.getUserPassword(), AccountRole.USER);
+
+        this.mockMvc.perform(get("/actuator/loggers")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isForbidden());
+        this.mockMvc.perform(post("/actuator/loggers/org.hibernate.type.descriptor.sql.BasicBinder")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"configuredLevel\":\"TRACE\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("ADMIN 권한 토큰으로는 로그 레벨을 바꿀 수 있는 테스트")
+    public void adminChangesLogLevels() throws Exception {
+        String bearerToken = "Bearer " + tokenFor(appProperties.getAdminUsername(), appProperties.getAdminPassword(), AccountRole.ADMIN);
+
+        this.mockMvc.perform(post("/actuator/loggers/me.tialla.restapi.configs")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"configuredLevel\":\"DEBUG\"}"))
+                .andExpect(status().isNoContent());
+        this.mockMvc.perform(post("/actuator/loggers/me.tialla.restapi.configs")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("상태 확인과 Prometheus 수집은 토큰 없이, 지표 조회는 ADMIN 토큰만 되는 테스트")
+    public void healthAndPrometheusAreOpen() throws Exception {
+        this.mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+
+        String userToken = "Bearer " + tokenFor(appProperties.getUserUsername(), appProperties.getUserPassword(), AccountRole.USER);
+        this.mockMvc.perform(get("/actuator/metrics")
+                    .header(HttpHeaders.AUTHORIZATION, userToken))
+                .andExpect(status().isForbidden());
+
+        String adminToken = "Bearer " + tokenFor(appProperties.getAdminUsername(), appProperties.getAdminPassword(), AccountRole.ADMIN);
+        this.mockMvc.perform(get("/actuator/metrics")
+                    .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private String tokenFor(String username, String password, AccountRole role) throws Exception {
+        this.accountService.saveAccount(Account.builder()
+                .email(username)
+                .password(password)
+                .roles(Set.of(role))
+                .build());
+        return getAccessToken(username, password);
+    }
+}
@@ -0,0 +1,139 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class EnrollmentControllerTests extends BaseTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @BeforeEach
+    public void setUp(){
+        this.enrollmentRepository.deleteAll();
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+    }
+
+    // 신청이 남아 있으면 다른 테스트의 이벤트/계정 삭제가 FK에 걸린다
+    @AfterEach
+    public void tearDown(){
+        this.enrollmentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("신청 중인 이벤트에 참가 신청하는 테스트")
+    public void enroll() throws Exception {
+        String bearerToken = getBearerToken();
+        Event event = this.eventRepository.save(event(EventStatus.BEGAN_ENROLLMENT, 10));
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("id").exists())
+                .andExpect(jsonPath("account.id").exists())
+                .andExpect(jsonPath("enrolledDateTime").exists())
+                .andExpect(jsonPath("_links.event").exists())
+                .andDo(document("create-enrollment",
+                        links(
+                                linkWithRel("event").description("link to the event"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("id").description("identifier of the enrollment"),
+                                fieldWithPath("account.id").description("identifier of the enrolled account"),
+                                fieldWithPath("enrolledDateTime").description("date time of the enrollment")
+                        )
+                ));
+
+        assertThat(this.eventRepository.findAll()).extracting(Event::getEnrolledCount).containsExactly(1);
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 계정이 두 번 신청하면 409, 인원은 한 번만 늘어나는 테스트")
+    public void enroll_Twice() throws Exception {
+        String bearerToken = getBearerToken();
+        Event event = this.eventRepository.save(event(EventStatus.BEGAN_ENROLLMENT, 10));
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isCreated());
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isConflict());
+
+        assertThat(this.eventRepository.findAll()).extracting(Event::getEnrolledCount).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("신청 중이 아니거나 자리가 없는 이벤트는 409")
+    public void enroll_Rejected() throws Exception {
+        String bearerToken = getBearerToken();
+        Event draft = this.eventRepository.save(event(EventStatus.DRAFT, 10));
+        Event full = this.eventRepository.save(event(EventStatus.BEGAN_ENROLLMENT, 0));
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", draft.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isConflict());
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", full.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isConflict());
+
+        assertThat(this.enrollmentRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("없는 이벤트는 404, 인증하지 않으면 401")
+    public void enroll_NotFoundOrUnauthorized() throws Exception {
+        String bearerToken = getBearerToken();
+        Event event = this.eventRepository.save(event(EventStatus.BEGAN_ENROLLMENT, 10));
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", 11883)
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNotFound());
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private Event event(EventStatus eventStatus, int limitOfEnrollment) {
+        return Event.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .limitOfEnrollment(limitOfEnrollment)
+                .eventStatus(eventStatus)
+                .build();
+    }
+}
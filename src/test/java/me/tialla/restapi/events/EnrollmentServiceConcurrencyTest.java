@@ -0,0 +1,107 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.accounts.AccountRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 수백 명이 한 이벤트에 동시에 신청해도 limitOfEnrollment 명만 신청되는지 확인한다. 다른 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 쓴다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrollmenttest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:enrollmenttest"
+})
+@ActiveProfiles("test")
+public class EnrollmentServiceConcurrencyTest {
+
+    private static final int THREADS = 300;
+
+    private static final int LIMIT = 120;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @BeforeEach
+    public void setUp(){
+        this.enrollmentRepository.deleteAll();
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+    }
+
+    // 신청이 남아 있으면 다른 테스트의 이벤트/계정 삭제가 FK에 걸린다
+    @AfterEach
+    public void tearDown(){
+        this.enrollmentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("300명이 120명 제한 이벤트에 동시에 신청하면 정확히 120명만 신청된다")
+    public void neverOversubscribed() throws Exception {
+        Event event = this.eventRepository.save(Event.builder()
+                .name("Popular")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .limitOfEnrollment(LIMIT)
+                .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+                .build());
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            accounts.add(Account.builder().email("user" + i + "@email.com").password("pass").roles(Set.of(AccountRole.USER)).build());
+        }
+        accounts = this.accountRepository.saveAll(accounts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Account account : accounts) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return this.enrollmentService.enroll(event.getId(), account).isPresent();
+                }));
+            }
+            start.countDown();
+
+            int enrolled = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    enrolled++;
+                }
+            }
+            assertThat(enrolled).isEqualTo(LIMIT);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(this.eventRepository.findAll()).extracting(Event::getEnrolledCount).containsExactly(LIMIT);
+        assertThat(this.enrollmentRepository.countByEventId(event.getId())).isEqualTo(LIMIT);
+    }
+}
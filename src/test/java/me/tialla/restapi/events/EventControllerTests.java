@@ -1,11 +1,13 @@
 package me.tialla.restapi.events;
 
+import com.jayway.jsonpath.JsonPath;
 import me.tialla.restapi.accounts.Account;
 import me.tialla.restapi.accounts.AccountRepository;
 import me.tialla.restapi.accounts.AccountRole;
-import me.tialla.restapi.accounts.AccountService;
-import me.tialla.restapi.common.AppProperties;
 import me.tialla.restapi.common.BaseTest;
+import me.tialla.restapi.common.RequestStatements;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,19 +15,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
-import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static me.tialla.restapi.common.StatementMatchers.noRepeatedStatements;
+import static me.tialla.restapi.common.StatementMatchers.statementCountAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,13 +48,13 @@ public class EventControllerTests extends BaseTest {
     EventRepository eventRepository;
 
     @Autowired
-    AccountService accountService;
+    AccountRepository accountRepository;
 
     @Autowired
-    AccountRepository accountRepository;
+    EntityManagerFactory entityManagerFactory;
 
     @Autowired
-    AppProperties appProperties;
+    PlatformTransactionManager transactionManager;
 
     @BeforeEach
     public void setUp(){
@@ -138,40 +150,6 @@ public class EventControllerTests extends BaseTest {
 
     }
 
-    private String getBearerToken() throws Exception {
-        return getBearerToken(true);
-    }
-
-    private String getBearerToken(boolean needToCreateAccount) throws Exception {
-        return "Bearer " + getAccessToken(needToCreateAccount);
-    }
-
-    private String getAccessToken(boolean needToCreateAccount) throws Exception {
-        // Given
-        if(needToCreateAccount) {
-            createAccount();
-        }
-
-        ResultActions perform = this.mockMvc.perform(post("/oauth/token")
-                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
-                .param("username", appProperties.getUserUsername())
-                .param("password", appProperties.getUserPassword())
-                .param("grant_type", "password"));
-        var responseBody = perform.andReturn().getResponse().getContentAsString();
-        Jackson2JsonParser parser = new Jackson2JsonParser();
-        return parser.parseMap(responseBody).get("access_token").toString();
-
-    }
-
-    private Account createAccount() {
-        Account tialla = Account.builder()
-                .email(appProperties.getUserUsername())
-                .password(appProperties.getUserPassword())
-                .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
-                .build();
-        return this.accountService.saveAccount(tialla);
-    }
-
     @Test
     @DisplayName("입력 받을 수 없는 값을 사용한 경우에 에러가 발생하는 테스트")
     public void createEvent_Bad_Request() throws Exception{
@@ -250,6 +228,93 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("여러 이벤트를 한번에 생성하고 잘못된 항목은 index와 함께 오류를 받는 테스트")
+    public void createEvents() throws Exception {
+        List<EventDto> eventDtos = List.of(
+                batchEventDto("Spring 1", 100, 200),
+                EventDto.builder().build(),
+                batchEventDto("Spring 2", 10000, 200),
+                batchEventDto("Spring 3", 0, 0)
+        );
+
+        this.mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDtos)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(2))
+                .andExpect(jsonPath("created[0].id").exists())
+                .andExpect(jsonPath("created[0].manager.id").exists())
+                .andExpect(jsonPath("created[0]._links.self").exists())
+                .andExpect(jsonPath("created[1].free").value(true))
+                .andExpect(jsonPath("rejected.length()").value(2))
+                .andExpect(jsonPath("rejected[0].index").value(1))
+                .andExpect(jsonPath("rejected[0].errors[0].field").exists())
+                .andExpect(jsonPath("rejected[1].index").value(2))
+                .andExpect(jsonPath("rejected[1].errors[0].code").value("wrongPrices"))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.query-events").exists())
+                .andDo(document("create-events-batch",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("query-events").description("link to query events"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("created").description("events created from valid items, in request order"),
+                                fieldWithPath("rejected[].index").description("index of the rejected item in the request array"),
+                                fieldWithPath("rejected[].errors").description("validation errors of the rejected item")
+                        )
+                ))
+        ;
+
+        assertThat(this.eventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("일괄 생성은 JDBC batch insert로 저장하는 테스트")
+    public void createEventsWithJdbcBatch() throws Exception {
+        String bearerToken = getBearerToken();
+        List<EventDto> eventDtos = IntStream.range(0, 120)
+                .mapToObj(i -> batchEventDto("Spring " + i, 100, 200))
+                .collect(Collectors.toList());
+
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        this.mockMvc.perform(post("/api/events/batch")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(120));
+
+        //Then insert 3번(50건씩) + 시퀀스 조회 몇 번, 건마다 statement를 만들지 않는다
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        statistics.setStatisticsEnabled(false);
+        assertThat(this.eventRepository.count()).isEqualTo(120);
+    }
+
+    private EventDto batchEventDto(String name, int basePrice, int maxPrice) {
+        return EventDto.builder()
+                .name(name)
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,8,16,6))
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(100)
+                .location("감남역 D2 스타일 팩토리")
+                .build();
+    }
+
     @Test
     @DisplayName("인증 정보 없이 30개의 이벤트를 10개씩 두번째 페이지 조회하기")
     public void queryEvents() throws Exception{
@@ -298,6 +363,296 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("커서(keyset) 방식으로 30개의 이벤트를 10개씩 두번째 페이지 조회하기")
+    public void queryEventsByKeyset() throws Exception{
+        //Given 30개의 이벤트 넣어주기
+        IntStream.range(0,30).forEach(this::generateEvent);
+
+        var firstPage = this.mockMvc.perform(get("/api/events")
+                    .param("after", "")
+                    .param("size", "10")
+                )
+                .andExpect(status().isOk())
+                .andExpect(statementCountAtMost(1)) // count 쿼리 없이 select 1번
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event0"))
+                .andExpect(jsonPath("page").doesNotExist())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String next = JsonPath.read(firstPage, "_links.next.href");
+        String after = UriComponentsBuilder.fromUriString(next).build().getQueryParams().getFirst("after");
+
+        //When & Then
+        this.mockMvc.perform(get("/api/events")
+                    .param("after", after)
+                    .param("size", "10")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event10"))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.prev").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("query-events-keyset"))
+        ;
+    }
+
+    @Test
+    @DisplayName("시작 시각이 없는 이벤트는 커서(keyset) 조회에서 빠지고 다음 페이지 커서가 400이 되지 않는 테스트")
+    public void queryEventsByKeyset_Without_BeginEventDateTime() throws Exception{
+        //Given H2는 null을 먼저 정렬하므로 첫 페이지 마지막 이벤트가 시작 시각이 없을 수 있다
+        IntStream.range(0,2).forEach(index -> {
+            Event event = buildEvent(index);
+            event.setBeginEventDateTime(null);
+            this.eventRepository.save(event);
+        });
+        IntStream.range(2,5).forEach(this::generateEvent);
+
+        var firstPage = this.mockMvc.perform(get("/api/events")
+                    .param("after", "")
+                    .param("size", "2")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event2"))
+                .andReturn().getResponse().getContentAsString();
+        String next = JsonPath.read(firstPage, "_links.next.href");
+        String after = UriComponentsBuilder.fromUriString(next).build().getQueryParams().getFirst("after");
+
+        //When & Then
+        this.mockMvc.perform(get("/api/events")
+                    .param("after", after)
+                    .param("size", "2")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event4"))
+        ;
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 조회했을때 400 응답받기")
+    public void queryEventsByKeyset_Bad_Request() throws Exception{
+        this.mockMvc.perform(get("/api/events")
+                    .param("after", "not-a-cursor")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("wrongCursor"))
+        ;
+    }
+
+    @Test
+    @DisplayName("이벤트 목록 조회시 manager(Account)를 로딩하지 않는 테스트")
+    public void queryEventsWithoutLoadingManagers() throws Exception{
+        //Given 매니저 4명이 20개의 이벤트를 관리
+        List<Account> managers = IntStream.range(0,4)
+                .mapToObj(i -> this.accountRepository.save(Account.builder()
+                        .email("manager" + i + "@email.com")
+                        .password("pass")
+                        .roles(Set.of(AccountRole.USER))
+                        .build()))
+                .collect(Collectors.toList());
+        IntStream.range(0,20).forEach(i -> this.generateEvent(i, managers.get(i % managers.size())));
+
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //When
+        this.mockMvc.perform(get("/api/events")
+                    .param("page", "0")
+                    .param("size", "10")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].manager.id").exists())
+                .andExpect(statementCountAtMost(2))
+                .andExpect(noRepeatedStatements());
+
+        //Then 목록 select 1번 + count 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Account.class.getName()).getLoadCount()).isZero();
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("상태, 시작일 범위, 매니저로 이벤트 목록을 필터링하기")
+    public void queryEventsWithFilters() throws Exception {
+        //Given 10개 중 0~3번이 PUBLISHED, 짝수 번은 manager가 관리, 0~4번은 1월 시작
+        Account manager = this.createAccount();
+        IntStream.range(0, 10).forEach(i -> {
+            Event event = buildEvent(i);
+            event.setEventStatus(i < 4 ? EventStatus.PUBLISHED : EventStatus.DRAFT);
+            event.setBeginEventDateTime(LocalDateTime.of(2021, i < 5 ? 1 : 2, 1, 10, 0).plusHours(i));
+            event.setManager(i % 2 == 0 ? manager : null);
+            this.eventRepository.save(event);
+        });
+
+        //When & Then PUBLISHED 이면서 manager가 관리하는 0, 2번
+        this.mockMvc.perform(get("/api/events")
+                    .param("status", "PUBLISHED")
+                    .param("beginFrom", "2021-01-01T00:00:00")
+                    .param("beginTo", "2021-02-01T00:00:00")
+                    .param("manager", manager.getId().toString())
+                    .param("free", "false")
+                    .param("offline", "true")
+                    .param("sort", "name"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("event0"))
+                .andExpect(jsonPath("_embedded.eventList[1].name").value("event2"))
+                .andDo(document("query-events-filter",
+                        requestParameters(
+                                parameterWithName("status").description("event status (DRAFT, PUBLISHED, BEGAN_ENROLLMENT)"),
+                                parameterWithName("beginFrom").description("events beginning at or after this date time (inclusive)"),
+                                parameterWithName("beginTo").description("events beginning before this date time (exclusive)"),
+                                parameterWithName("manager").description("id of the managing account"),
+                                parameterWithName("free").description("whether the event is free"),
+                                parameterWithName("offline").description("whether the event is offline"),
+                                parameterWithName("sort").description("sort property and direction, as in the event list")
+                        )
+                ))
+        ;
+
+        //When & Then 2월에 시작하는 이벤트
+        this.mockMvc.perform(get("/api/events")
+                    .param("beginFrom", "2021-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(5));
+    }
+
+    @Test
+    @DisplayName("이름과 설명으로 이벤트를 검색하고 커서로 다음 페이지 조회하기")
+    public void searchEvents() throws Exception {
+        //Given 0~4번 중 짝수 번만 이름에 Spring, 1번은 설명에 spring
+        IntStream.range(0, 5).forEach(i -> {
+            Event event = buildEvent(i);
+            event.setName(i % 2 == 0 ? "Spring Boot " + i : "JPA " + i);
+            event.setDescription(i == 1 ? "with spring data" : "test event");
+            this.eventRepository.save(event);
+        });
+
+        //When & Then 4건이 2건씩
+        String body = this.mockMvc.perform(get("/api/events/search")
+                    .param("q", "SPRING")
+                    .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(statementCountAtMost(2)) // 검색 1번 + id로 한번에 조회 1번
+                .andExpect(noRepeatedStatements())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("search-events",
+                        requestParameters(
+                                parameterWithName("q").description("search words, all of them must appear in the name or description"),
+                                parameterWithName("size").description("page size (default 20)")
+                        ),
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("next").description("link to the next page, absent on the last page"),
+                                linkWithRel("profile").description("link to profile")
+                        )
+                ))
+                .andReturn().getResponse().getContentAsString();
+        List<String> firstPage = JsonPath.read(body, "$._embedded.eventList[*].name");
+
+        String next = JsonPath.read(body, "$._links.next.href");
+        String after = UriComponentsBuilder.fromUriString(next).build().getQueryParams().getFirst("after");
+        body = this.mockMvc.perform(get("/api/events/search")
+                    .param("q", "spring")
+                    .param("size", "2")
+                    .param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.next").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        List<String> secondPage = JsonPath.read(body, "$._embedded.eventList[*].name");
+
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(2);
+        assertThat(firstPage).doesNotContainAnyElementsOf(secondPage);
+    }
+
+    @Test
+    @DisplayName("이벤트를 수정하면 바뀐 이름으로 검색되기")
+    public void searchEventsAfterUpdate() throws Exception {
+        //Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(200, account);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("Kotlin Coroutines");
+
+        //When
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        //Then
+        this.mockMvc.perform(get("/api/events/search").param("q", "kotlin coroutines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(event.getId()));
+        this.mockMvc.perform(get("/api/events/search").param("q", "event200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded").doesNotExist());
+        this.mockMvc.perform(get("/api/events/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("전체 이벤트를 NDJSON으로 내보내기")
+    public void exportEvents() throws Exception {
+        //Given
+        IntStream.range(0, 5).forEach(this::generateEvent);
+
+        //When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then 한 줄에 이벤트 하나
+        String body = this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andDo(document("export-events"))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().collect(Collectors.toList());
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(this.objectMapper.readTree(lines.get(0)).get("name").asText()).isEqualTo("event0");
+    }
+
+    @Test
+    @DisplayName("since 이후에 수정된 이벤트만 내보내기")
+    public void exportEventsSince() throws Exception {
+        //Given
+        IntStream.range(0, 3).forEach(this::generateEvent);
+        Thread.sleep(20);
+        LocalDateTime since = LocalDateTime.now();
+        Thread.sleep(20);
+        IntStream.range(3, 5).forEach(this::generateEvent);
+
+        //When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export")
+                    .param("since", since.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Then
+        String body = this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines())
+                .hasSize(2)
+                .allMatch(line -> line.contains("\"name\":\"event3\"") || line.contains("\"name\":\"event4\""));
+    }
+
     @Test
     @DisplayName("기존의 이벤트를 하나 조회하기")
     public void getEvent() throws Exception{
@@ -319,6 +674,68 @@ public class EventControllerTests extends BaseTest {
 
     }
     
+    @Test
+    @DisplayName("변경되지 않은 이벤트를 If-None-Match로 조회했을때 304 응답받기")
+    public void getEvent304() throws Exception{
+        //Given
+        Event event = this.generateEvent(100);
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //When & Then
+        this.mockMvc.perform(get("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+        ;
+    }
+
+    @Test
+    @DisplayName("한번 조회한 이벤트는 DB를 거치지 않고 캐시에서 조회하기")
+    public void getEventFromCache() throws Exception{
+        //Given
+        Event event = this.generateEvent(100);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk());
+
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //When
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(event.getName()));
+
+        //Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("캐시에서 꺼낸 이벤트를 바꾸거나 롤백된 저장은 다른 조회에 보이지 않기")
+    public void getEventFromCacheIsolated() throws Exception{
+        //Given 캐시에 올라간 이벤트
+        Event event = this.generateEvent(100);
+        Event cached = this.eventRepository.findById(event.getId()).orElseThrow();
+
+        //When 꺼낸 인스턴스를 바꾸고, 그 값을 저장한 트랜잭션은 롤백된다
+        cached.setName("Not Saved");
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+            this.eventRepository.save(cached);
+            status.setRollbackOnly();
+        });
+
+        //Then
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow()).isNotSameAs(cached);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(event.getName()));
+    }
+
     @Test
     @DisplayName("이벤트를 정상적으로 수정하기")
     public void updateEvent() throws Exception{
@@ -344,6 +761,48 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("If-Match의 버전이 다르면 이벤트 수정 실패")
+    public void updateEvent412() throws Exception{
+        //Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(200, account);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("First Update");
+        String bearerToken = getBearerToken(false);
+
+        String eTag = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .header(HttpHeaders.IF_MATCH, EventETags.of(event, true))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto))
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //When & Then 이전 버전의 ETag로 수정하면 실패
+        eventDto.setName("Stale Update");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .header(HttpHeaders.IF_MATCH, EventETags.of(event, true))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto))
+                )
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+        ;
+
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Stale Update"))
+        ;
+    }
+
     @Test
     @DisplayName("입력값이 비어있는 경우에 이벤트 수정 실패")
     public void updateEvent400_Empty() throws Exception{
@@ -405,6 +864,99 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @Test
+    @DisplayName("PATCH로 보낸 필드만 수정하고 바뀐 컬럼만 UPDATE 하기")
+    public void patchEvent() throws Exception{
+        //Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(200, account);
+
+        //When
+        MvcResult result = this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content("{\"name\":\"Patched Event\",\"location\":null}")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("name").value("Patched Event"))
+                .andExpect(jsonPath("description").value("test event"))
+                .andExpect(jsonPath("location").doesNotExist())
+                .andExpect(jsonPath("offline").value(false))
+                .andExpect(jsonPath("_links.self").exists())
+                .andDo(document("patch-event",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        requestHeaders(
+                                headerWithName(HttpHeaders.CONTENT_TYPE).description(EventController.MERGE_PATCH_JSON_VALUE)
+                        )
+                ))
+                .andReturn();
+
+        //Then
+        RequestStatements statements = (RequestStatements) result.getRequest().getAttribute(RequestStatements.ATTRIBUTE);
+        String update = statements.getRepeated(0).keySet().stream()
+                .filter(sql -> sql.trim().startsWith("update"))
+                .findFirst().orElseThrow();
+        assertThat(update).contains("name=?", "location=?", "offline=?", "search_text=?", "version=?");
+        assertThat(update).doesNotContain("description=?", "begin_event_date_time=?", "base_price=?", "manager_id=?");
+    }
+
+    @Test
+    @DisplayName("PATCH로 바꾼 값이 관련 규칙에 맞지 않거나 없는 필드를 보내면 수정 실패")
+    public void patchEvent400() throws Exception{
+        //Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(200, account);
+        String bearerToken = getBearerToken(false);
+
+        //When & Then
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"basePrice\":20000}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").value("wrongPrices"));
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"name\":null}")
+                )
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"eventStatus\":\"PUBLISHED\"}")
+                )
+                .andExpect(status().isBadRequest());
+
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getBasePrice()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("PATCH는 바꾸지 않은 필드의 규칙은 검사하지 않기")
+    public void patchEvent_OnlyAffectedRules() throws Exception{
+        //Given 가격 규칙에 맞지 않게 저장된 이벤트
+        Account account = this.createAccount();
+        Event event = buildEvent(200);
+        event.setBasePrice(20000);
+        event.setManager(account);
+        event = this.eventRepository.save(event);
+
+        //When & Then
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"description\":\"patched\"}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("description").value("patched"));
+    }
 
     @Test
     @DisplayName("없는 이벤트를 조회했을때 404 응답받기")
@@ -0,0 +1,101 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// MVC가 hal+json을 쓸 때 사용하는 ObjectMapper의 출력이 바이트 단위로 golden/events/serialized-*.json 과 같은지 확인한다.
+// (Afterburner 등록 전의 출력으로 만든 파일이다. 필드 순서, 이스케이프, 날짜 형식이 바뀌면 실패한다)
+public class EventHalSerializationTest extends BaseTest {
+
+    private static final String EVENTS = "http://localhost:8080/api/events";
+
+    @Autowired
+    RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    @DisplayName("EntityModel<Event> 직렬화 결과가 골든 파일과 바이트 단위로 같은지 확인")
+    public void entityModelMatchesGoldenBytes() throws Exception {
+        EntityModel<Event> eventModel = EventResource.modelof(event(7), EVENTS);
+        eventModel.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+        eventModel.add(Link.of(EVENTS + "/7", "update-event"));
+
+        assertGolden("serialized-event", halObjectMapper().writeValueAsString(eventModel));
+    }
+
+    @Test
+    @DisplayName("PagedModel 직렬화 결과가 골든 파일과 바이트 단위로 같은지 확인")
+    public void pagedModelMatchesGoldenBytes() throws Exception {
+        List<EntityModel<Event>> content = IntStream.range(1, 4)
+                .mapToObj(i -> EventResource.modelof(event(i), EVENTS))
+                .collect(Collectors.toList());
+        PagedModel<EntityModel<Event>> pagedModel = PagedModel.of(content, new PagedModel.PageMetadata(3, 0, 10));
+        pagedModel.add(Link.of(EVENTS + "?page=0&size=3").withSelfRel());
+        pagedModel.add(Link.of(EVENTS + "?page=1&size=3", "next"));
+        pagedModel.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
+
+        assertGolden("serialized-page", halObjectMapper().writeValueAsString(pagedModel));
+    }
+
+    @Test
+    @DisplayName("hal+json ObjectMapper에 Afterburner가 등록되어 있는지 확인")
+    public void halObjectMapperUsesAfterburner() {
+        assertThat(halObjectMapper().getRegisteredModuleIds()).contains(new AfterburnerModule().getTypeId());
+    }
+
+    private ObjectMapper halObjectMapper() {
+        for (HttpMessageConverter<?> converter : this.handlerAdapter.getMessageConverters()) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter
+                    && converter.canWrite(EntityModel.class, MediaTypes.HAL_JSON)) {
+                return ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+        throw new IllegalStateException("hal+json converter not found");
+    }
+
+    private void assertGolden(String name, String actual) throws Exception {
+        String expected = StreamUtils.copyToString(new ClassPathResource("golden/events/" + name + ".json").getInputStream(), StandardCharsets.UTF_8);
+        assertThat(actual).isEqualTo(expected.trim());
+    }
+
+    private Event event(int id) {
+        Event event = Event.builder()
+                .id(id)
+                .name("Spring " + id)
+                .description("Rest API Development with \"Spring\" & HAL")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6,30))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6,0,123000000))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .location(id % 2 == 0 ? null : "D2 Factory")
+                .basePrice(100 * id)
+                .maxPrice(200 * id)
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(Account.builder().id(3).build())
+                .build();
+        event.update();
+        return event;
+    }
+}
@@ -0,0 +1,55 @@
+package me.tialla.restapi.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+public class EventLinksTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void sameAsLinkTo() {
+        assertSameAsLinkTo(request("localhost", 8080, ""));
+        assertSameAsLinkTo(request("localhost", 8080, "/app"));
+        assertSameAsLinkTo(request("example.com", 443, ""));
+
+        MockHttpServletRequest forwarded = request("localhost", 8080, "");
+        forwarded.addHeader("X-Forwarded-Host", "api.example.com");
+        forwarded.addHeader("X-Forwarded-Proto", "https");
+        forwarded.addHeader("X-Forwarded-Prefix", "/gateway");
+        assertSameAsLinkTo(forwarded);
+
+        MockHttpServletRequest rfc7239 = request("localhost", 8080, "");
+        rfc7239.addHeader("Forwarded", "proto=https;host=events.example.com");
+        assertSameAsLinkTo(rfc7239);
+
+        // 캐시된 값이 다른 host에 섞이지 않는다
+        assertSameAsLinkTo(request("localhost", 8080, ""));
+    }
+
+    private void assertSameAsLinkTo(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        for (int i = 0; i < 2; i++) {
+            assertThat(EventLinks.events("query-events")).isEqualTo(linkTo(EventController.class).withRel("query-events"));
+            assertThat(EventLinks.event(10, IanaLinkRelations.SELF)).isEqualTo(linkTo(EventController.class).slash(10).withSelfRel());
+        }
+    }
+
+    private MockHttpServletRequest request(String host, int port, String contextPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", contextPath + "/api/events");
+        request.setServerName(host);
+        request.setServerPort(port);
+        request.setContextPath(contextPath);
+        return request;
+    }
+}
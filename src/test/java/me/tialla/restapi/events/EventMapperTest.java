@@ -0,0 +1,72 @@
+package me.tialla.restapi.events;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private final EventMapper eventMapper = new EventMapper();
+
+    @Test
+    public void toEvent(){
+        EventDto eventDto = buildEventDto();
+
+        Event event = this.eventMapper.toEvent(eventDto);
+
+        assertThat(event).usingRecursiveComparison().isEqualTo(this.modelMapper.map(eventDto, Event.class));
+        assertThat(event.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+    }
+
+    @Test
+    public void mapOverwritesExistingEvent(){
+        //Given 기존 이벤트 위에 location 이 없는 Dto를 덮어쓰기
+        EventDto eventDto = buildEventDto();
+        eventDto.setLocation(null);
+        Event expected = existingEvent();
+        Event actual = existingEvent();
+
+        //When
+        this.modelMapper.map(eventDto, expected);
+        this.eventMapper.map(eventDto, actual);
+
+        //Then
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(actual.getLocation()).isNull();
+        assertThat(actual.getId()).isEqualTo(10);
+    }
+
+    private Event existingEvent() {
+        return Event.builder()
+                .id(10)
+                .name("old")
+                .description("old event")
+                .location("강남")
+                .basePrice(1)
+                .maxPrice(2)
+                .free(false)
+                .offline(true)
+                .eventStatus(EventStatus.PUBLISHED)
+                .build();
+    }
+
+    private EventDto buildEventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,8,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("감남역 D2 스타일 팩토리")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Prometheus 내보내기를 켜야 하므로 컨텍스트가 따로 뜬다. 다른 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 쓴다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricstest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:metricstest"
+})
+@AutoConfigureMetrics
+public class EventMetricsTest extends BaseTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @BeforeEach
+    public void setUp(){
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("이벤트 생성/조회 후 단계별 타이머, SQL 문 수, Hikari 대기 시간이 Prometheus로 나오는지 확인")
+    public void phaseMetricsArePublished() throws Exception {
+        String bearerToken = getBearerToken();
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .build();
+
+        String created = this.mockMvc.perform(post("/api/events")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer id = this.objectMapper.readTree(created).get("id").asInt();
+        this.mockMvc.perform(get("/api/events/{id}", id)).andExpect(status().isOk());
+
+        String scrape = this.mockMvc.perform(get("/actuator/prometheus")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String phase : new String[]{EventMetrics.VALIDATION, EventMetrics.MAPPING, EventMetrics.REPOSITORY, EventMetrics.SERIALIZATION}) {
+            assertThat(scrape).contains("event_request_phase_seconds_count{endpoint=\"create\",phase=\"" + phase + "\",} 1.0");
+        }
+        assertThat(scrape).contains("event_request_phase_seconds_count{endpoint=\"get\",phase=\"repository\",} 1.0");
+        assertThat(scrape).contains("event_request_phase_seconds_bucket{endpoint=\"create\",phase=\"repository\",le=");
+        assertThat(scrape).contains("event_request_statements_count{endpoint=\"create\",} 1.0");
+        assertThat(scrape).doesNotContain("event_request_statements_sum{endpoint=\"create\",} 0.0");
+        assertThat(scrape).contains("hikaricp_connections_acquire_seconds_bucket{");
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{");
+    }
+}
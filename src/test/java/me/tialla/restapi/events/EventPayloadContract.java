@@ -0,0 +1,209 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+// EventController와 ReactiveEventController가 같은 HAL 본문을 내는지 src/test/resources/golden/events 의 파일과 비교한다.
+// id는 생성 순서대로 이름을 붙여 치환한다. (두 구현의 시퀀스 값이 다르므로)
+public abstract class EventPayloadContract extends BaseTest {
+
+    private static final Pattern EVENT_HREF = Pattern.compile("/api/events/(\\d+)");
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    private final Map<Integer, String> eventNames = new HashMap<>();
+
+    @BeforeEach
+    public void setUp(){
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+        this.eventNames.clear();
+    }
+
+    @Test
+    @DisplayName("생성/조회/수정/목록/오류 응답 본문이 골든 파일과 같고, If-None-Match가 맞으면 304인지 확인")
+    public void payloadsMatchGoldenFiles() throws Exception {
+        String bearerToken = getBearerToken();
+
+        MockHttpServletResponse created = perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(objectMapper.writeValueAsString(eventDto("Spring", 100, 200, "D2 Factory"))));
+        assertThat(created.getStatus()).isEqualTo(201);
+        assertThat(created.getHeader(HttpHeaders.LOCATION)).endsWith("/api/events");
+        Integer id = remember(created, "spring");
+        assertGolden("create-event", created);
+
+        MockHttpServletResponse anonymous = perform(get("/api/events/{id}", id));
+        assertThat(anonymous.getStatus()).isEqualTo(200);
+        assertGolden("get-event", anonymous);
+
+        MockHttpServletResponse managerView = perform(get("/api/events/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken));
+        assertThat(managerView.getStatus()).isEqualTo(200);
+        assertThat(managerView.getHeaders(HttpHeaders.ETAG)).containsExactly("\"0-m\"");
+        assertGolden("get-event-manager", managerView);
+
+        MockHttpServletResponse notModified = perform(get("/api/events/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header(HttpHeaders.IF_NONE_MATCH, managerView.getHeader(HttpHeaders.ETAG)));
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getHeaders(HttpHeaders.ETAG)).containsExactly("\"0-m\"");
+        assertThat(notModified.getContentAsString()).isEmpty();
+
+        EventDto update = eventDto("Spring Boot", 0, 0, null);
+        MockHttpServletResponse updated = perform(put("/api/events/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header(HttpHeaders.IF_MATCH, managerView.getHeader(HttpHeaders.ETAG))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(objectMapper.writeValueAsString(update)));
+        assertThat(updated.getStatus()).isEqualTo(200);
+        assertThat(updated.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1-m\"");
+        assertGolden("update-event", updated);
+
+        MockHttpServletResponse stale = perform(put("/api/events/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)));
+        assertThat(stale.getStatus()).isEqualTo(412);
+
+        for (String name : new String[]{"Hibernate", "Kotlin"}) {
+            MockHttpServletResponse response = perform(post("/api/events")
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(eventDto(name, 100, 200, "D2 Factory"))));
+            remember(response, name.toLowerCase());
+        }
+
+        MockHttpServletResponse page = perform(get("/api/events")
+                .param("page", "0")
+                .param("size", "2")
+                .param("sort", "name,DESC")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken));
+        assertThat(page.getStatus()).isEqualTo(200);
+        assertGolden("query-events", page);
+
+        MockHttpServletResponse pageNotModified = perform(get("/api/events")
+                .param("page", "0")
+                .param("size", "2")
+                .param("sort", "name,DESC")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header(HttpHeaders.IF_NONE_MATCH, page.getHeader(HttpHeaders.ETAG)));
+        assertThat(pageNotModified.getStatus()).isEqualTo(304);
+        assertThat(pageNotModified.getHeaders(HttpHeaders.ETAG)).containsExactly(page.getHeader(HttpHeaders.ETAG));
+        assertThat(pageNotModified.getContentAsString()).isEmpty();
+
+        MockHttpServletResponse badRequest = perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto("Wrong", 300, 200, null))));
+        assertThat(badRequest.getStatus()).isEqualTo(400);
+        assertGolden("create-event-bad-request", badRequest);
+
+        assertThat(perform(get("/api/events/{id}", Integer.MAX_VALUE)).getStatus()).isEqualTo(404);
+    }
+
+    // Mono를 돌려주는 구현은 async로 시작하므로 결과를 dispatch 해서 받는다
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MvcResult result = this.mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = this.mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+
+    private Integer remember(MockHttpServletResponse response, String name) throws Exception {
+        Integer id = this.objectMapper.readTree(response.getContentAsString()).get("id").asInt();
+        this.eventNames.put(id, name);
+        return id;
+    }
+
+    private void assertGolden(String name, MockHttpServletResponse response) throws Exception {
+        JsonNode actual = normalize(this.objectMapper.readTree(response.getContentAsString(StandardCharsets.UTF_8)), null);
+        String expected = StreamUtils.copyToString(new ClassPathResource("golden/events/" + name + ".json").getInputStream(), StandardCharsets.UTF_8);
+        JSONAssert.assertEquals(name, expected, this.objectMapper.writeValueAsString(actual), true);
+    }
+
+    private JsonNode normalize(JsonNode node, String fieldName) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                field.setValue(normalize(field.getValue(), field.getKey()));
+            }
+            if (object.has("id") && object.get("id").isNumber()) {
+                int id = object.get("id").asInt();
+                object.put("id", "manager".equals(fieldName) ? "{manager}" : "{" + this.eventNames.getOrDefault(id, "?") + "}");
+            }
+            return object;
+        }
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                ((ArrayNode) node).set(i, normalize(node.get(i), fieldName));
+            }
+            return node;
+        }
+        if (node.isTextual()) {
+            Matcher matcher = EVENT_HREF.matcher(node.asText());
+            StringBuffer text = new StringBuffer();
+            while (matcher.find()) {
+                String eventName = this.eventNames.getOrDefault(Integer.valueOf(matcher.group(1)), "?");
+                matcher.appendReplacement(text, "/api/events/{" + eventName + "}");
+            }
+            matcher.appendTail(text);
+            return TextNode.valueOf(text.toString());
+        }
+        return node;
+    }
+
+    private EventDto eventDto(String name, int basePrice, int maxPrice, String location) {
+        return EventDto.builder()
+                .name(name)
+                .description("Rest API Development with " + name)
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(100)
+                .location(location)
+                .build();
+    }
+}
@@ -0,0 +1,5 @@
+package me.tialla.restapi.events;
+
+// EventController(JPA)의 응답 본문
+public class EventPayloadTest extends EventPayloadContract {
+}
@@ -0,0 +1,326 @@
+package me.tialla.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import me.tialla.restapi.common.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.Errors;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ASYNC 모드에서 이벤트 쓰기가 멈춰 있어도 Tomcat 스레드(4개)가 묶이지 않아 인덱스와 캐시된 조회는 바로 응답한다.
+// 시간 초과로 응답한 뒤에도 멈춘 작업은 permit을 쥐고 있어 느린 DB에 쌓이는 작업 수가 늘지 않는다.
+// 다른 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 쓴다.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "my-app.event-execution-mode=async",
+        "my-app.event-executor-threads=16",
+        "my-app.event-request-timeout=5s",
+        "my-app.event-endpoint-concurrency.create=6",
+        "server.tomcat.threads.max=4",
+        "server.tomcat.threads.min-spare=1",
+        "spring.datasource.url=jdbc:h2:mem:loadtest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:loadtest"
+})
+@ActiveProfiles("test")
+public class EventRequestExecutorLoadTest {
+
+    private static final int STALLED_WRITES = 10;
+
+    private static final int CREATE_CONCURRENCY = 6;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    StallingEventValidator eventValidator;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterEach
+    public void tearDown() {
+        this.eventValidator.open();
+    }
+
+    @Test
+    @DisplayName("이벤트 쓰기가 멈춰 있는 동안 인덱스와 캐시된 이벤트 조회가 응답하는지 확인")
+    public void readsStayResponsiveWhileWritesStall() throws Exception {
+        //Given 캐시에 올라간 이벤트 하나
+        String bearerToken = "Bearer " + getAccessToken();
+        HttpResponse<String> created = this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        Integer id = (Integer) new Jackson2JsonParser().parseMap(created.body()).get("id");
+        assertThat(get("/api/events/" + id).statusCode()).isEqualTo(200);
+
+        //When Tomcat 스레드 수보다 많은 쓰기 요청이 검증 단계에서 멈춘다
+        this.eventValidator.close();
+        List<CompletableFuture<HttpResponse<String>>> writes = IntStream.range(0, STALLED_WRITES)
+                .mapToObj(i -> this.httpClient.sendAsync(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        this.eventValidator.awaitStalled(CREATE_CONCURRENCY);
+
+        //Then 인덱스와 캐시된 이벤트 조회는 바로 응답
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            assertThat(get("/api").statusCode()).isEqualTo(200);
+            assertThat(get("/api/events/" + id).statusCode()).isEqualTo(200);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        }
+
+        //Then 동시 실행 제한을 넘은 쓰기는 기다리지 않고 503, 나머지는 풀리면 201
+        this.eventValidator.open();
+        List<Integer> statuses = writes.stream()
+                .map(write -> write.orTimeout(30, TimeUnit.SECONDS).join().statusCode())
+                .collect(Collectors.toList());
+        assertThat(statuses.stream().filter(status -> status == 201)).hasSize(CREATE_CONCURRENCY);
+        assertThat(statuses.stream().filter(status -> status == 503)).hasSize(STALLED_WRITES - CREATE_CONCURRENCY);
+    }
+
+    @Test
+    @DisplayName("시간 초과로 응답한 뒤에도 멈춘 작업이 permit을 쥐고 있어 다음 요청은 바로 503인지 확인")
+    public void timedOutWorkKeepsItsPermit() throws Exception {
+        //Given 시간 초과보다 오래 멈추는 쓰기. JDBC처럼 인터럽트에도 풀리지 않는다
+        String bearerToken = "Bearer " + getAccessToken();
+        this.eventValidator.close();
+        List<CompletableFuture<HttpResponse<String>>> writes = IntStream.range(0, CREATE_CONCURRENCY)
+                .mapToObj(i -> this.httpClient.sendAsync(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        this.eventValidator.awaitStalled(CREATE_CONCURRENCY);
+
+        //When 요청은 시간 초과로 503
+        for (CompletableFuture<HttpResponse<String>> write : writes) {
+            assertThat(write.orTimeout(30, TimeUnit.SECONDS).join().statusCode()).isEqualTo(503);
+        }
+
+        //Then 작업은 아직 멈춰 있으므로 새 쓰기는 핸들러에 들어가지 않고 바로 503
+        long start = System.nanoTime();
+        assertThat(this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(503);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(this.eventValidator.stalled()).isEqualTo(CREATE_CONCURRENCY);
+
+        //Then 멈춘 작업이 끝나 permit이 돌아오면 다시 201
+        this.eventValidator.open();
+        int status = 0;
+        for (int i = 0; i < 50 && status != 201; i++) {
+            status = this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString()).statusCode();
+            if (status != 201) {
+                Thread.sleep(100);
+            }
+        }
+        assertThat(status).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("ASYNC 모드에서도 생성, 조회, 목록, 커서, 검색 응답의 링크가 절대 URI인지 확인")
+    public void asyncResponsesHaveAbsoluteLinks() throws Exception {
+        //Given 이벤트 둘
+        String bearerToken = "Bearer " + getAccessToken();
+        assertThat(this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(201);
+        HttpResponse<String> created = this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        Integer id = (Integer) new Jackson2JsonParser().parseMap(created.body()).get("id");
+        String events = uri("/api/events").toString();
+
+        //When & Then event-request-* 스레드에서 만든 링크도 요청의 scheme/host/port를 쓴다
+        assertThat(created.headers().firstValue("Location")).hasValue(events);
+        assertLinks(created.body(), "self", events + "/" + id);
+        assertLinks(created.body(), "query-events", events);
+        assertLinks(created.body(), "update-event", events + "/" + id);
+
+        assertLinks(get("/api/events/" + id, bearerToken).body(), "self", events + "/" + id);
+        assertLinks(get("/api/events/" + id, bearerToken).body(), "update-event", events + "/" + id);
+
+        String list = get("/api/events?size=1", bearerToken).body();
+        assertLinks(list, "self", events);
+        assertLinks(list, "create-event", events);
+        assertThat(JsonPath.<String>read(list, "$._embedded.eventList[0]._links.self.href")).startsWith(events + "/");
+
+        String keyset = get("/api/events?after=&size=1", bearerToken).body();
+        assertLinks(keyset, "self", events + "?after=&size=1");
+        assertThat(JsonPath.<String>read(keyset, "$._links.next.href")).startsWith(events + "?after=");
+
+        String search = get("/api/events/search?q=spring&size=1", bearerToken).body();
+        assertLinks(search, "self", events + "/search?q=spring&size=1");
+        assertThat(JsonPath.<String>read(search, "$._embedded.eventList[0]._links.self.href")).startsWith(events + "/");
+    }
+
+    @Test
+    @DisplayName("ASYNC 모드에서도 조회, 목록, 커서 응답이 If-None-Match가 같으면 304와 ETag를 주는지 확인")
+    public void asyncConditionalGetsAnswerNotModified() throws Exception {
+        //Given 이벤트 하나
+        String bearerToken = "Bearer " + getAccessToken();
+        HttpResponse<String> created = this.httpClient.send(createEventRequest(bearerToken), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        Integer id = (Integer) new Jackson2JsonParser().parseMap(created.body()).get("id");
+
+        for (String path : List.of("/api/events/" + id, "/api/events?size=1", "/api/events?after=&size=1")) {
+            HttpResponse<String> response = get(path, bearerToken);
+            assertThat(response.statusCode()).isEqualTo(200);
+            String eTag = response.headers().firstValue("ETag").orElseThrow();
+
+            //When & Then 재디스패치에서도 뷰로 넘어가지 않고 본문 없는 304
+            HttpRequest request = HttpRequest.newBuilder(uri(path))
+                    .header("Authorization", bearerToken)
+                    .header("If-None-Match", eTag)
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> notModified = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(notModified.statusCode()).as(path).isEqualTo(304);
+            assertThat(notModified.headers().allValues("ETag")).as(path).containsExactly(eTag);
+            assertThat(notModified.body()).as(path).isEmpty();
+        }
+    }
+
+    private static void assertLinks(String body, String rel, String href) {
+        assertThat(JsonPath.<String>read(body, "$._links['" + rel + "'].href")).startsWith(href);
+    }
+
+    private HttpResponse<String> get(String path, String bearerToken) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Authorization", bearerToken)
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        return this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(5)).GET().build();
+        return this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest createEventRequest(String bearerToken) {
+        EventDto eventDto = EventDto.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,8,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("감남역 D2 스타일 팩토리")
+                .build();
+        try {
+            return HttpRequest.newBuilder(uri("/api/events"))
+                    .header("Authorization", bearerToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(this.objectMapper.writeValueAsString(eventDto)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String getAccessToken() throws Exception {
+        String client = this.appProperties.getClientId() + ":" + this.appProperties.getClientSecret();
+        String form = "grant_type=password&username=" + this.appProperties.getUserUsername()
+                + "&password=" + this.appProperties.getUserPassword();
+        HttpRequest request = HttpRequest.newBuilder(uri("/oauth/token"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(client.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        String body = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return new Jackson2JsonParser().parseMap(body).get("access_token").toString();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+
+    @TestConfiguration
+    static class StallingValidatorConfiguration {
+
+        @Bean
+        @Primary
+        public StallingEventValidator stallingEventValidator() {
+            return new StallingEventValidator();
+        }
+    }
+
+    // 닫혀 있는 동안 validate에서 멈춰 느린 DB 쓰기를 흉내낸다
+    static class StallingEventValidator extends EventValidator {
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        private final AtomicInteger stalled = new AtomicInteger();
+
+        void close() {
+            this.stalled.set(0);
+            this.gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            this.gate.countDown();
+        }
+
+        void awaitStalled(int count) throws InterruptedException {
+            for (int i = 0; i < 500 && this.stalled.get() < count; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(this.stalled.get()).isEqualTo(count);
+        }
+
+        int stalled() {
+            return this.stalled.get();
+        }
+
+        @Override
+        public void validate(EventDto eventDto, Errors errors) {
+            CountDownLatch current = this.gate;
+            if (current.getCount() > 0) {
+                this.stalled.incrementAndGet();
+                // 시간 초과 때 WebAsyncManager가 작업을 인터럽트해도 열릴 때까지 계속 멈춰 있는다
+                boolean interrupted = false;
+                while (current.getCount() > 0) {
+                    try {
+                        current.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.validate(eventDto, errors);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 응답 캐시를 켜야 하므로 컨텍스트가 따로 뜬다. 다른 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 쓴다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:responsecachetest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:responsecachetest",
+        "my-app.event-response-cache-enabled=true",
+        "my-app.event-response-cache-ttl=1h"
+})
+public class EventResponseCacheTest extends BaseTest {
+
+    @Autowired
+    EventResponseCache eventResponseCache;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Account account;
+
+    @BeforeEach
+    public void setUp(){
+        this.enrollmentRepository.deleteAll();
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+        this.eventResponseCache.invalidateAll();
+        this.account = createAccount();
+    }
+
+    @Test
+    @DisplayName("익명 조회는 저장한 응답을 돌려주고, 이벤트를 수정하면 캐시를 비우는 테스트")
+    public void servesCachedAnonymousReads() throws Exception {
+        Event event = this.eventRepository.save(event("Spring"));
+        double hits = this.meterRegistry.counter("event.response.cache.requests", "result", "hit").count();
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Spring"));
+        this.jdbcTemplate.update("update event set name = ? where id = ?", "Changed", event.getId());
+        String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Spring"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(this.meterRegistry.counter("event.response.cache.requests", "result", "hit").count()).isEqualTo(hits + 2);
+
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(this.modelMapper.map(event("Updated"), EventDto.class))))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated"));
+    }
+
+    @Test
+    @DisplayName("참가 신청은 응답에 나가지 않는 신청 인원만 바꾸므로 저장한 목록 응답을 비우지 않는 테스트")
+    public void enrollmentKeepsCachedReads() throws Exception {
+        Event event = this.eventRepository.save(event("Spring").toBuilder().eventStatus(EventStatus.BEGAN_ENROLLMENT).build());
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk());
+        double hits = this.meterRegistry.counter("event.response.cache.requests", "result", "hit").count();
+
+        this.mockMvc.perform(post("/api/events/{id}/enrollments", event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, getBearerToken(false)))
+                .andExpect(status().isCreated());
+
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("Spring"));
+        assertThat(this.meterRegistry.counter("event.response.cache.requests", "result", "hit").count()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @DisplayName("인증한 요청은 캐시를 거치지 않고, 익명 응답에는 create-event/update-event 링크가 없는 테스트")
+    public void neverMixesAuthenticatedResponses() throws Exception {
+        Event event = this.eventRepository.save(event("Spring"));
+        String bearerToken = getBearerToken(false);
+
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.create-event").doesNotExist());
+        this.mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.create-event").exists());
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()).header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").exists());
+
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.create-event").doesNotExist());
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.update-event").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("ttl이 지난 응답은 한 요청만 다시 만들고, 그동안 다른 요청은 stale 응답을 받는 테스트")
+    public void staleWhileRevalidate() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.setEventResponseCacheTtl(Duration.ZERO); // 저장하자마자 stale
+        EventResponseCache cache = new EventResponseCache(properties, new SimpleMeterRegistry());
+
+        assertThat(read(cache, body("v1"))).isEqualTo("v1");
+
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                return read(cache, new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                        refreshing.countDown();
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        response.getWriter().write("v2");
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(refreshing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(read(cache, body("never called"))).isEqualTo("v1");
+
+        release.countDown();
+        assertThat(refresh.get(10, TimeUnit.SECONDS)).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("If-None-Match가 붙은 요청이 stale 응답을 다시 만들어도 새 응답을 저장하는 테스트")
+    public void revalidatesConditionalRequest() throws Exception {
+        AppProperties properties = new AppProperties();
+        properties.setEventResponseCacheTtl(Duration.ofMillis(200));
+        EventResponseCache cache = new EventResponseCache(properties, new SimpleMeterRegistry());
+        assertThat(read(cache, conditional("v1"))).isEqualTo("v1");
+        Thread.sleep(300);
+
+        //When
+        MockHttpServletResponse response = perform(cache, conditional("v2"), "\"1\"");
+
+        //Then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsString()).isEmpty();
+        assertThat(read(cache, body("never called"))).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("forwarded 헤더가 다른 요청은 저장한 응답을 나눠 쓰지 않는 테스트")
+    public void keysOnForwardedHeaders() throws Exception {
+        EventResponseCache cache = new EventResponseCache(this.appProperties, new SimpleMeterRegistry());
+        HttpServlet links = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getWriter().write(String.valueOf(request.getHeader("X-Forwarded-Host")));
+            }
+        };
+
+        assertThat(read(cache, links, "a.example.com")).isEqualTo("a.example.com");
+        assertThat(read(cache, links, "b.example.com")).isEqualTo("b.example.com");
+        assertThat(read(cache, links, null)).isEqualTo("null");
+        assertThat(read(cache, body("never called"), "a.example.com")).isEqualTo("a.example.com");
+    }
+
+    private static String read(EventResponseCache cache, HttpServlet servlet, String forwardedHost) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1");
+        if (forwardedHost != null) {
+            request.addHeader("X-Forwarded-Host", forwardedHost);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.doFilter(request, response, new MockFilterChain(servlet));
+        return response.getContentAsString();
+    }
+
+    private static String read(EventResponseCache cache, HttpServlet servlet) throws Exception {
+        return perform(cache, servlet, null).getContentAsString();
+    }
+
+    private static MockHttpServletResponse perform(EventResponseCache cache, HttpServlet servlet, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    // EventController처럼 ETag가 같으면 304를 준다
+    private static HttpServlet conditional(String body) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                if ("\"1\"".equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+                response.setHeader(HttpHeaders.ETAG, "\"1\"");
+                response.getWriter().write(body);
+            }
+        };
+    }
+
+    private static HttpServlet body(String body) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getWriter().write(body);
+            }
+        };
+    }
+
+    private Event event(String name) {
+        return Event.builder()
+                .name(name)
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(this.account)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package me.tialla.restapi.events;
+
+import me.tialla.restapi.common.BaseTest;
+import me.tialla.restapi.common.RequestStatements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventStatusSchedulerTest extends BaseTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020,12,11,0,0);
+
+    @Autowired
+    EventStatusScheduler eventStatusScheduler;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp(){
+        this.eventRepository.deleteAll();
+        this.jdbcTemplate.update("delete from scheduler_lease");
+        this.eventStatusScheduler.reset();
+    }
+
+    @Test
+    @DisplayName("밀린 전환을 한 번의 tick에서 순서대로 적용하고 캐시도 갱신하는 테스트")
+    public void catchesUpTransitions() {
+        Event ended = this.eventRepository.save(event(EventStatus.PUBLISHED, LocalDateTime.of(2020,12,7,15,6)));
+        Event enrolling = this.eventRepository.save(event(EventStatus.PUBLISHED, LocalDateTime.of(2020,12,10,15,6)));
+        Event upcoming = this.eventRepository.save(event(EventStatus.PUBLISHED, LocalDateTime.of(2021,1,7,15,6)));
+        Event draft = this.eventRepository.save(event(EventStatus.DRAFT, LocalDateTime.of(2020,12,7,15,6)));
+        this.eventRepository.findById(ended.getId()); // 캐시에 올려 둔다
+
+        int applied = this.eventStatusScheduler.tick(NOW);
+
+        assertThat(applied).isEqualTo(5);
+        Event endedNow = this.eventRepository.findById(ended.getId()).orElseThrow();
+        assertThat(endedNow.getEventStatus()).isEqualTo(EventStatus.ENDED);
+        assertThat(endedNow.getVersion()).isEqualTo(ended.getVersion() + 4);
+        assertThat(this.eventRepository.findById(enrolling.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(this.eventRepository.findById(upcoming.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+        assertThat(this.eventRepository.findById(draft.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.DRAFT);
+        assertThat(this.eventStatusScheduler.getNextDue()).isEqualTo(enrolling.getCloseEnrollmentDateTime());
+    }
+
+    @Test
+    @DisplayName("다음 전환 시각 전의 tick은 SQL을 실행하지 않는 테스트")
+    public void idleTickRunsNoStatements() throws Exception {
+        this.eventRepository.save(event(EventStatus.PUBLISHED, LocalDateTime.of(2021,1,7,15,6)));
+        assertThat(this.eventStatusScheduler.tick(NOW)).isZero();
+
+        RequestStatements statements = new RequestStatements();
+        int applied = RequestStatements.callWith(statements, () -> this.eventStatusScheduler.tick(NOW.plusSeconds(1)));
+
+        assertThat(applied).isZero();
+        assertThat(statements.getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("수정된 이벤트의 전환 시각이 다음 refresh 전이라도 적용되는 테스트")
+    public void scheduledEventIsAppliedBeforeRefresh() {
+        assertThat(this.eventStatusScheduler.tick(NOW)).isZero();
+        assertThat(this.eventStatusScheduler.getNextDue()).isNull();
+
+        Event event = this.eventRepository.save(event(EventStatus.PUBLISHED, NOW.plusSeconds(10)));
+        this.eventStatusScheduler.schedule(event);
+
+        assertThat(this.eventStatusScheduler.tick(NOW.plusSeconds(11))).isEqualTo(1);
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 임대를 가지고 있으면 전환하지 않고, 만료되면 가져와서 전환하는 테스트")
+    public void appliesOnlyWithLease() {
+        Event event = this.eventRepository.save(event(EventStatus.PUBLISHED, LocalDateTime.of(2020,12,10,15,6)));
+        this.jdbcTemplate.update("insert into scheduler_lease (name, owner, expires_at) values (?, ?, current_timestamp + interval '1' hour)",
+                EventStatusScheduler.LEASE, "other-node");
+
+        assertThat(this.eventStatusScheduler.tick(NOW)).isZero();
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+
+        this.jdbcTemplate.update("update scheduler_lease set expires_at = current_timestamp - interval '1' second where name = ?",
+                EventStatusScheduler.LEASE);
+
+        assertThat(this.eventStatusScheduler.tick(NOW)).isEqualTo(1);
+        assertThat(this.jdbcTemplate.queryForObject("select owner from scheduler_lease where name = ?", String.class,
+                EventStatusScheduler.LEASE)).isNotEqualTo("other-node");
+        // 새 만료 시각도 DB 시계 기준으로 ttl만큼 뒤다
+        assertThat(this.jdbcTemplate.queryForObject("select count(*) from scheduler_lease where name = ? " +
+                "and expires_at > current_timestamp + interval '10' second", Integer.class, EventStatusScheduler.LEASE)).isEqualTo(1);
+    }
+
+    // 모집 시작부터 이벤트 종료까지 하루씩 떨어진 이벤트
+    private Event event(EventStatus eventStatus, LocalDateTime beginEnrollment) {
+        return Event.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(beginEnrollment)
+                .closeEnrollmentDateTime(beginEnrollment.plusDays(1))
+                .beginEventDateTime(beginEnrollment.plusDays(2))
+                .endEventDateTime(beginEnrollment.plusDays(3))
+                .limitOfEnrollment(100)
+                .eventStatus(eventStatus)
+                .build();
+    }
+}
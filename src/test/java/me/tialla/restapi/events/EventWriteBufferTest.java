@@ -0,0 +1,271 @@
+package me.tialla.restapi.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.tialla.restapi.accounts.Account;
+import me.tialla.restapi.accounts.AccountRepository;
+import me.tialla.restapi.common.AppProperties;
+import me.tialla.restapi.common.BaseTest;
+import me.tialla.restapi.common.RequestStatements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// write-behind 모드로 컨텍스트가 따로 뜬다. 다른 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 쓴다.
+// write-behind 는 스케줄링이 있어야 시작하므로 켜되, 시작할 때 한 번 돈 뒤에는 돌지 않도록 주기를 길게 두고 flush()와 tick()을 직접 호출한다.
+// 버린 수정이 익명 응답 캐시에 남지 않는지 보기 위해 응답 캐시도 켠다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehindtest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:writebehindtest",
+        "my-app.event-write-mode=write-behind",
+        "my-app.scheduling-enabled=true",
+        "my-app.event-write-behind-window=1h",
+        "my-app.event-status-tick=1h",
+        "my-app.event-response-cache-enabled=true",
+        "my-app.event-response-cache-ttl=1h"
+})
+public class EventWriteBufferTest extends BaseTest {
+
+    @Autowired
+    EventWriteBuffer eventWriteBuffer;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    EventStatusScheduler eventStatusScheduler;
+
+    private String bearerToken;
+
+    private Event event;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.eventWriteBuffer.flush();
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+
+        Account account = createAccount();
+        this.bearerToken = getBearerToken(false);
+        this.event = this.eventRepository.save(Event.builder()
+                .name("Spring")
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(account)
+                .build());
+    }
+
+    @Test
+    @DisplayName("같은 이벤트의 여러 수정을 버퍼에 모았다가 한 번에 저장하고, 저장 전에도 조회에 보이는 테스트")
+    public void coalescesUpdates() throws Exception {
+        long version = this.event.getVersion();
+        double coalesced = this.meterRegistry.counter("event.write.buffer.coalesced").count();
+        Set<String> eTags = new HashSet<>();
+        for (int i = 1; i <= 3; i++) {
+            eTags.add(this.mockMvc.perform(put("/api/events/{id}", this.event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto("Spring " + i))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("name").value("Spring " + i))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+        }
+        assertThat(eTags).hasSize(3);
+        assertThat(this.meterRegistry.counter("event.write.buffer.coalesced").count()).isEqualTo(coalesced + 2);
+
+        // 저장 전: DB는 그대로, 조회는 마지막 수정
+        assertThat(row().get("name")).isEqualTo("Spring");
+        this.mockMvc.perform(get("/api/events/{id}", this.event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Spring 3"));
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("Spring 3"));
+
+        assertThat(this.eventWriteBuffer.flush()).isEqualTo(1);
+
+        Map<String, Object> row = row();
+        assertThat(row.get("name")).isEqualTo("Spring 3");
+        assertThat(row.get("search_text")).isEqualTo("spring 3 rest api development with spring");
+        assertThat(((Number) row.get("version")).longValue()).isEqualTo(version + 3);
+        assertThat(this.meterRegistry.get("event.write.buffer.lag").timer().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("버퍼에 있는 수정보다 오래된 ETag로 수정하면 412")
+    public void staleIfMatchIsRejected() throws Exception {
+        String eTag = "\"" + this.event.getVersion() + "\"";
+        this.mockMvc.perform(put("/api/events/{id}", this.event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto("Spring 1"))))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(put("/api/events/{id}", this.event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto("Spring 2"))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(this.eventWriteBuffer.flush()).isEqualTo(1);
+        assertThat(row().get("name")).isEqualTo("Spring 1");
+    }
+
+    @Test
+    @DisplayName("버퍼에 넣은 뒤 DB에서 먼저 바뀐 이벤트의 수정은 버리고 캐시를 비워 DB 값을 보여주는 테스트")
+    public void conflictingUpdateIsDropped() throws Exception {
+        double dropped = this.meterRegistry.counter("event.write.buffer.dropped", "reason", "conflict").count();
+        this.mockMvc.perform(put("/api/events/{id}", this.event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto("Spring 1"))))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/events/{id}", this.event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Spring 1")); // 익명 응답 캐시에 저장된다
+        this.jdbcTemplate.update("update event set name = ?, version = version + 1 where id = ?", "Other node", this.event.getId());
+
+        assertThat(this.eventWriteBuffer.flush()).isZero();
+        assertThat(this.meterRegistry.counter("event.write.buffer.dropped", "reason", "conflict").count()).isEqualTo(dropped + 1);
+        this.mockMvc.perform(get("/api/events/{id}", this.event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Other node"));
+    }
+
+    @Test
+    @DisplayName("PATCH의 수정도 버퍼에 모았다가 다시 계산한 free, offline과 함께 바뀐 컬럼만 저장하는 테스트")
+    public void patchWritesChangedColumnsAndFlags() throws Exception {
+        this.mockMvc.perform(patch("/api/events/{id}", this.event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"location\":\"강남역 D2 스타텁 팩토리\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("free").value(true))
+                .andExpect(jsonPath("offline").value(true));
+
+        RequestStatements statements = new RequestStatements();
+        assertThat(RequestStatements.callWith(statements, () -> this.eventWriteBuffer.flush())).isEqualTo(1);
+
+        Map<String, Object> row = this.jdbcTemplate.queryForMap("select location, free, offline from event where id = ?", this.event.getId());
+        assertThat(row.get("location")).isEqualTo("강남역 D2 스타텁 팩토리");
+        assertThat(row.get("free")).isEqualTo(true);
+        assertThat(row.get("offline")).isEqualTo(true);
+        String update = statements.getRepeated(0).keySet().stream()
+                .filter(sql -> sql.trim().startsWith("update event"))
+                .findFirst().orElseThrow();
+        assertThat(update).contains("location = ?", "free = ?", "offline = ?", "version = ?");
+        assertThat(update).doesNotContain("name = ?", "description = ?", "begin_event_date_time = ?", "base_price = ?");
+    }
+
+    @Test
+    @DisplayName("버퍼에 넣은 뒤 상태 전환만 있었으면 수정을 버리지 않고 다시 저장하는 테스트")
+    public void statusTransitionDoesNotDropUpdate() throws Exception {
+        double dropped = this.meterRegistry.counter("event.write.buffer.dropped", "reason", "conflict").count();
+        String eTag = this.mockMvc.perform(put("/api/events/{id}", this.event.getId())
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(eventDto("Spring 1"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //When 저장 전에 상태 전환으로 DB의 version이 올라간다
+        this.jdbcTemplate.update("delete from scheduler_lease");
+        this.eventStatusScheduler.reset();
+        assertThat(this.eventStatusScheduler.tick(LocalDateTime.of(2020,12,11,0,0))).isEqualTo(4);
+
+        //Then 수정과 상태 전환이 모두 남고, version은 양쪽에서 내준 값보다 크다
+        assertThat(this.eventWriteBuffer.flush()).isEqualTo(1);
+        assertThat(this.meterRegistry.counter("event.write.buffer.dropped", "reason", "conflict").count()).isEqualTo(dropped);
+        Map<String, Object> row = row();
+        assertThat(row.get("name")).isEqualTo("Spring 1");
+        assertThat(row.get("event_status")).isEqualTo(EventStatus.ENDED.name());
+        assertThat(((Number) row.get("version")).longValue()).isEqualTo(this.event.getVersion() + 5);
+        this.mockMvc.perform(get("/api/events/{id}", this.event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Spring 1"))
+                .andExpect(jsonPath("eventStatus").value(EventStatus.ENDED.name()))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag));
+    }
+
+    @Test
+    @DisplayName("버퍼의 이벤트를 먼저 읽은 쪽은 이후의 수정으로 바뀌지 않는 테스트")
+    public void bufferedEventIsNotChangedInPlace() throws Exception {
+        Event before = this.eventWriteBuffer.update(this.eventRepository.findById(this.event.getId()).orElseThrow(),
+                this.event.getVersion(), event -> event.setName("Spring 1")).orElseThrow();
+        Event read = this.eventWriteBuffer.findById(this.event.getId()).orElseThrow();
+
+        Event after = this.eventWriteBuffer.update(read, before.getVersion(), event -> event.setName("Spring 2")).orElseThrow();
+
+        assertThat(read).isNotSameAs(before);
+        assertThat(before.getName()).isEqualTo("Spring 1");
+        assertThat(read.getName()).isEqualTo("Spring 1");
+        assertThat(after.getName()).isEqualTo("Spring 2");
+        assertThat(this.eventWriteBuffer.findById(this.event.getId()).orElseThrow().getName()).isEqualTo("Spring 2");
+    }
+
+    @Test
+    @DisplayName("스케줄링 없이 write-behind 모드로 시작하면 실패하는 테스트")
+    public void writeBehindRequiresScheduling() {
+        AppProperties properties = new AppProperties();
+        properties.setEventWriteMode(EventWriteBuffer.Mode.WRITE_BEHIND);
+        properties.setSchedulingEnabled(false);
+
+        assertThatThrownBy(() -> new EventWriteBuffer(properties, this.eventRepository, this.jdbcTemplate, null, null, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("my-app.scheduling-enabled");
+    }
+
+    private Map<String, Object> row() {
+        return this.jdbcTemplate.queryForMap("select name, search_text, event_status, version from event where id = ?", this.event.getId());
+    }
+
+    private EventDto eventDto(String name) {
+        return EventDto.builder()
+                .name(name)
+                .description("Rest API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020,12,7,15,6))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020,12,8,11,6))
+                .beginEventDateTime(LocalDateTime.of(2020,12,9,15,6))
+                .endEventDateTime(LocalDateTime.of(2020,12,10,16,6))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역 D2 스타텁 팩토리")
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package me.tialla.restapi.events;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// ReactiveEventController(R2DBC)의 응답 본문. JPA 테스트와 DB가 섞이지 않도록 별도의 in-memory DB를 JDBC와 R2DBC가 같이 쓴다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivetest",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:reactivetest",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest"
+})
+@ActiveProfiles({"test", "reactive"})
+public class ReactiveEventPayloadTest extends EventPayloadContract {
+}